@@ -0,0 +1,85 @@
+package com.hess.assignment1.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import game.Level;
+
+/**
+ * Times one simulation step of a large generated level with every chunk loaded, while
+ * a view the size of the screen runs through the level. With sleeping on, only the
+ * objects around the view are updated and only their bodies are moved by Box2D. Box2D
+ * still walks its whole body list every step, sleeping or not, which is what is left
+ * growing with the level. In the game, chunk streaming keeps that list short.
+ * switchView() ignores sleeping and only moves the view between the start and the
+ * middle of the level, so every object around one of them falls asleep and every
+ * object around the other wakes up, which times what sleeping and waking costs on
+ * its own
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ActivityBenchmark
+{
+	private static final float DELTA_TIME = 1.0f/60.0f;
+	private static final float VIEW_WIDTH = 5.0f;
+	private static final float RUN_SPEED = 3.0f;
+
+	@Param({"1000", "10000", "100000"})
+	public int objectCount;
+
+	@Param({"true", "false"})
+	public boolean sleeping;
+
+	private Level level;
+	private World b2world;
+	private float viewX;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		BenchmarkAssets.load();
+		File directory = new File(System.getProperty("java.io.tmpdir"), "canyonbunny-benchmarks");
+		level = new Level(BenchmarkAssets.writeLevel(directory, objectCount, true));
+		b2world = new World(new Vector2(0, -9.81f), true);
+		level.initPhysics(b2world);
+		level.updateStreaming(0, level.width);
+		viewX = 0;
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		b2world.dispose();
+	}
+
+	@Benchmark
+	public Level step()
+	{
+		viewX += RUN_SPEED*DELTA_TIME;
+		if(viewX > level.width) viewX = 0;
+		if(sleeping) level.updateActivity(viewX, viewX+VIEW_WIDTH);
+		level.update(DELTA_TIME);
+		b2world.step(DELTA_TIME, 8, 3);
+		return level;
+	}
+
+	@Benchmark
+	public Level switchView()
+	{
+		viewX = viewX == 0 ? level.width/2 : 0;
+		level.updateActivity(viewX, viewX+VIEW_WIDTH);
+		return level;
+	}
+}
@@ -0,0 +1,86 @@
+package com.hess.assignment1.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.hess.assignment1.desktop.LevelCompiler;
+import com.hess.assignment1.headless.StubGL20;
+import game.Assets;
+import game.Level;
+import game.Level.BLOCK_TYPE;
+import utilities.GamePreferences;
+
+/**
+ * Shared setup for benchmarks that need the game's assets or a level. Assets are
+ * loaded once per JVM on the headless backend with the GL calls stubbed out, the
+ * same way the headless simulation benchmark does it
+ */
+public class BenchmarkAssets
+{
+	private static boolean loaded = false;
+
+	private BenchmarkAssets(){}
+
+	/**
+	 * Starts the headless backend and loads Assets, unless that already happened
+	 */
+	public static synchronized void load()
+	{
+		if(loaded) return;
+		new HeadlessApplication(new ApplicationAdapter(){}).exit();
+		Gdx.gl = StubGL20.create();
+		Gdx.gl20 = Gdx.gl;
+		Assets.instance.init(new AssetManager());
+		GamePreferences.instance.load();
+		GamePreferences.instance.sound = false;
+		loaded = true;
+	}
+
+	/**
+	 * Writes a level image with objectCount gold coins and feathers on one row, above
+	 * a row of rocks with a gap every eight columns. If compiled is set, the compiled
+	 * level is written next to it so Level loads that instead
+	 *
+	 * @param directory
+	 * @param objectCount
+	 * @param compiled
+	 * @return the path of the level image
+	 * @throws IOException
+	 */
+	public static String writeLevel(File directory, int objectCount, boolean compiled) throws IOException
+	{
+		int width = objectCount+8;
+		int height = 16;
+		Pixmap pixmap = new Pixmap(width, height, Format.RGBA8888);
+		pixmap.setColor(BLOCK_TYPE.EMPTY.getColor());
+		pixmap.fill();
+
+		pixmap.drawPixel(1, 8, BLOCK_TYPE.PLAYER_SPAWNPOINT.getColor());
+		for(int x = 0; x < width; x++)
+		{
+			if(x%8 != 7) pixmap.drawPixel(x, 12, BLOCK_TYPE.ROCK.getColor());
+		}
+		for(int i = 0; i < objectCount; i++)
+		{
+			BLOCK_TYPE type = i%8 == 0 ? BLOCK_TYPE.ITEM_FEATHER : BLOCK_TYPE.ITEM_GOLD_COIN;
+			pixmap.drawPixel(4+i, 11, type.getColor());
+		}
+		pixmap.drawPixel(width-1, 4, BLOCK_TYPE.GOAL.getColor());
+
+		directory.mkdirs();
+		File image = new File(directory, "level-"+objectCount+".png");
+		PixmapIO.writePNG(Gdx.files.absolute(image.getAbsolutePath()), pixmap);
+		pixmap.dispose();
+		if(compiled)
+		{
+			LevelCompiler.compile(image, new File(Level.getCompiledFilename(image.getPath())));
+		}
+		return image.getAbsolutePath();
+	}
+}
@@ -0,0 +1,72 @@
+package com.hess.assignment1.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import objects.BunnyHead;
+import objects.BunnyHead.JUMP_STATE;
+
+/**
+ * Times BunnyHead.update while the bunnies keep jumping, landing and picking up
+ * feathers, so the jump states and the copter animations are cycled through. The
+ * bunnies are out of step with each other so every state is hit in every invocation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BunnyHeadBenchmark
+{
+	//Ticks between feather pickups, long enough for the power-up to run out
+	private static final int FEATHER_PERIOD = 720;
+	private static final int JUMP_PERIOD = 40;
+
+	@Param({"1", "10", "100"})
+	public int objectCount;
+
+	private BunnyHead[] bunnies;
+	private int tick;
+
+	@Setup
+	public void setup()
+	{
+		BenchmarkAssets.load();
+		bunnies = new BunnyHead[objectCount];
+		for(int i = 0; i < objectCount; i++)
+		{
+			bunnies[i] = new BunnyHead();
+			bunnies[i].velocity.x = bunnies[i].terminalVelocity.x;
+		}
+		tick = 0;
+	}
+
+	@Benchmark
+	public float update()
+	{
+		tick++;
+		float sum = 0;
+		for(int i = 0; i < bunnies.length; i++)
+		{
+			BunnyHead bunny = bunnies[i];
+			int bunnyTick = tick+i*(FEATHER_PERIOD/bunnies.length);
+			if(bunnyTick%FEATHER_PERIOD == 0) bunny.setFeatherPowerup(true);
+			bunny.setJumping(bunnyTick%JUMP_PERIOD < 15);
+			bunny.update(1.0f/60.0f);
+
+			//Land again instead of falling forever
+			if(bunny.position.y < 0)
+			{
+				bunny.position.y = 0;
+				bunny.velocity.y = 0;
+				bunny.jumpState = JUMP_STATE.GROUNDED;
+			}
+			sum += bunny.position.y;
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,49 @@
+package com.hess.assignment1.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.badlogic.gdx.math.Vector2;
+import decoration.Clouds;
+
+/**
+ * Times Clouds.update with the camera running right at the bunny's top speed, so
+ * clouds keep leaving the area on the left and are respawned on the right
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CloudsBenchmark
+{
+	//Clouds spawns one cloud per this many meters of length
+	private static final int CLOUD_SPACING = 5;
+
+	@Param({"10", "100", "1000"})
+	public int objectCount;
+
+	private Clouds clouds;
+	private Vector2 camPosition;
+
+	@Setup
+	public void setup()
+	{
+		BenchmarkAssets.load();
+		clouds = new Clouds(objectCount*CLOUD_SPACING);
+		camPosition = new Vector2();
+	}
+
+	@Benchmark
+	public Clouds update()
+	{
+		camPosition.x += 3.0f/60.0f;
+		clouds.updateScrollPosition(camPosition);
+		clouds.update(1.0f/60.0f);
+		return clouds;
+	}
+}
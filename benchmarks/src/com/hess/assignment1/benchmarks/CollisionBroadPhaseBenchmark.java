@@ -0,0 +1,132 @@
+package com.hess.assignment1.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import objects.AbstractGameObject;
+import utilities.Constants;
+import utilities.SpatialHashGrid;
+import utilities.SweepAndPrune;
+
+/**
+ * Compares the linear scan WorldController.testCollisions() used to do against
+ * the SpatialHashGrid and SweepAndPrune broad phases for a bunny-sized box sweeping
+ * through the level
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBroadPhaseBenchmark
+{
+	@Param({"1000", "10000", "100000"})
+	public int objectCount;
+
+	private Array<Block> objects;
+	private SpatialHashGrid<Block> grid;
+	private SweepAndPrune<Block> sweep;
+	private Array<Block> nearby;
+	private Rectangle r1;
+	private Rectangle r2;
+	private int levelWidth;
+	private float playerX;
+
+	/**
+	 * Game object without any assets, placed like the pickups in a generated level
+	 */
+	static class Block extends AbstractGameObject
+	{
+		Block(float x, float y)
+		{
+			position.set(x, y);
+			bounds.set(0, 0, 0.5f, 0.5f);
+		}
+
+		@Override
+		public void render(SpriteBatch batch){}
+	}
+
+	@Setup
+	public void setup()
+	{
+		Random random = new Random(42);
+		levelWidth = objectCount;
+		objects = new Array<Block>(objectCount);
+		grid = new SpatialHashGrid<Block>(levelWidth, Constants.SPATIAL_GRID_CELL_WIDTH);
+		sweep = new SweepAndPrune<Block>();
+		for(int i = 0; i < objectCount; i++)
+		{
+			Block block = new Block(random.nextFloat()*levelWidth, random.nextFloat()*5.0f);
+			objects.add(block);
+			grid.insert(block);
+			sweep.insert(block);
+		}
+		nearby = new Array<Block>();
+		r1 = new Rectangle();
+		r2 = new Rectangle();
+		playerX = 0;
+	}
+
+	/**
+	 * Moves the player box a little further through the level every invocation
+	 */
+	private void advancePlayer()
+	{
+		playerX += 0.05f;
+		if(playerX > levelWidth) playerX = 0;
+		r1.set(playerX, 2.0f, 1.0f, 1.0f);
+	}
+
+	@Benchmark
+	public int linearScan()
+	{
+		advancePlayer();
+		int hits = 0;
+		for(int i = 0; i < objects.size; i++)
+		{
+			Block block = objects.get(i);
+			r2.set(block.position.x, block.position.y, block.bounds.width, block.bounds.height);
+			if(r1.overlaps(r2)) hits++;
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public int spatialHashGrid()
+	{
+		advancePlayer();
+		int hits = 0;
+		Array<Block> candidates = grid.query(r1, nearby);
+		for(int i = 0; i < candidates.size; i++)
+		{
+			Block block = candidates.get(i);
+			r2.set(block.position.x, block.position.y, block.bounds.width, block.bounds.height);
+			if(r1.overlaps(r2)) hits++;
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public int sweepAndPrune()
+	{
+		advancePlayer();
+		int hits = 0;
+		Array<Block> candidates = sweep.query(r1, nearby);
+		for(int i = 0; i < candidates.size; i++)
+		{
+			Block block = candidates.get(i);
+			r2.set(block.position.x, block.position.y, block.bounds.width, block.bounds.height);
+			if(r1.overlaps(r2)) hits++;
+		}
+		return hits;
+	}
+}
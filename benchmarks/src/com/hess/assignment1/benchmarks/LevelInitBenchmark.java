@@ -0,0 +1,51 @@
+package com.hess.assignment1.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import game.Level;
+
+/**
+ * Times loading a level with objectCount gold coins and feathers, once from the
+ * level image and once from the compiled level
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LevelInitBenchmark
+{
+	@Param({"100", "1000", "10000"})
+	public int objectCount;
+
+	private String pngLevel;
+	private String compiledLevel;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		BenchmarkAssets.load();
+		File directory = new File(System.getProperty("java.io.tmpdir"), "canyonbunny-benchmarks");
+		pngLevel = BenchmarkAssets.writeLevel(new File(directory, "png"), objectCount, false);
+		compiledLevel = BenchmarkAssets.writeLevel(new File(directory, "compiled"), objectCount, true);
+	}
+
+	@Benchmark
+	public Level parsePng()
+	{
+		return new Level(pngLevel);
+	}
+
+	@Benchmark
+	public Level parseCompiled()
+	{
+		return new Level(compiledLevel);
+	}
+}
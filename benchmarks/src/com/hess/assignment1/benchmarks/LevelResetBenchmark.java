@@ -0,0 +1,153 @@
+package com.hess.assignment1.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import game.CarrotPool;
+import game.Level;
+import objects.Rock;
+import utilities.Constants;
+
+/**
+ * Times a respawn after losing a life, with a full drop of carrots in play. reset is
+ * what WorldController.initLevel does now: return the carrots to the pool and call
+ * Level.reset, keeping the World and the rocks' bodies. rebuild is what it used to
+ * do: load the level again and create a new World with every body. objectCount 0 is
+ * the shipped level, anything else a generated level of that size. After every reset
+ * the carrots have to be out of the World and the rocks' bodies the same as before
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevelResetBenchmark
+{
+	@Param({"0", "1000", "10000"})
+	public int objectCount;
+
+	private String filename;
+	private Level level;
+	private World b2world;
+	private CarrotPool carrotPool;
+	//Bodies of the rocks of bodiesLevel, to tell if a reset recreated them
+	private Level bodiesLevel;
+	private ObjectMap<Rock, Body> rockBodies = new ObjectMap<Rock, Body>();
+	private Array<Body> bodies = new Array<Body>();
+
+	@Setup
+	public void setup() throws IOException
+	{
+		BenchmarkAssets.load();
+		if(objectCount == 0)
+		{
+			filename = Constants.LEVEL_01;
+		}
+		else
+		{
+			File directory = new File(System.getProperty("java.io.tmpdir"), "canyonbunny-benchmarks");
+			filename = BenchmarkAssets.writeLevel(directory, objectCount, true);
+		}
+		carrotPool = new CarrotPool(Constants.CARROTS_POOL_SIZE);
+		rebuild();
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		level.freeCarrots(carrotPool);
+		b2world.dispose();
+	}
+
+	/**
+	 * Drops the carrots the goal drops and lets them fall for a second, so the reset
+	 * has to take carrots out of play that have touched the level
+	 */
+	@Setup(org.openjdk.jmh.annotations.Level.Invocation)
+	public void spawnCarrots()
+	{
+		Vector2 spawn = level.bunnyHead.position;
+		for(int i = 0; i < Constants.CARROTS_SPAWN_MAX; i++)
+		{
+			level.addCarrot(carrotPool.obtain(spawn.x+i*0.5f, spawn.y+5, 0));
+		}
+		for(int i = 0; i < 60; i++)
+		{
+			b2world.step(1.0f/60.0f, 8, 3);
+		}
+	}
+
+	/**
+	 * Throws if a carrot is still in play or active in the World, or if a rock of a
+	 * level that was only reset got a new body
+	 */
+	@TearDown(org.openjdk.jmh.annotations.Level.Invocation)
+	public void checkBodies()
+	{
+		if(level.carrots.size > 0)
+		{
+			throw new IllegalStateException(level.carrots.size+" carrots left in play");
+		}
+		b2world.getBodies(bodies);
+		for(Body body: bodies)
+		{
+			if(body.getType() == BodyType.DynamicBody && body.isActive())
+			{
+				throw new IllegalStateException("A carrot's body is still active");
+			}
+		}
+
+		if(level != bodiesLevel)
+		{
+			bodiesLevel = level;
+			rockBodies.clear();
+			for(Rock rock: level.rocks)
+			{
+				rockBodies.put(rock, rock.body);
+			}
+			return;
+		}
+		for(Rock rock: level.rocks)
+		{
+			if(rock.body == null || rock.body != rockBodies.get(rock))
+			{
+				throw new IllegalStateException("Reset recreated the body of a rock");
+			}
+		}
+	}
+
+	@Benchmark
+	public Level reset()
+	{
+		level.freeCarrots(carrotPool);
+		level.reset();
+		level.updateStreaming(level.bunnyHead.position.x, level.bunnyHead.position.x);
+		return level;
+	}
+
+	@Benchmark
+	public Level rebuild()
+	{
+		if(level != null) level.freeCarrots(carrotPool);
+		if(b2world != null) b2world.dispose();
+		level = new Level(filename);
+		b2world = new World(new Vector2(0, -9.81f), true);
+		level.initPhysics(b2world);
+		carrotPool.init(b2world);
+		level.updateStreaming(level.bunnyHead.position.x, level.bunnyHead.position.x);
+		return level;
+	}
+}
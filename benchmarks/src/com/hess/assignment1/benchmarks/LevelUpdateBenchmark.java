@@ -0,0 +1,73 @@
+package com.hess.assignment1.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import game.Level;
+
+/**
+ * Times Level.update with collectedPercent of the coins and feathers already
+ * collected, with every chunk loaded. Collected pickups are moved out of the active
+ * ones, so the update gets cheaper as the level is cleared
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevelUpdateBenchmark
+{
+	@Param({"1000", "10000"})
+	public int objectCount;
+
+	@Param({"0", "50", "90"})
+	public int collectedPercent;
+
+	private Level level;
+	private World b2world;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		BenchmarkAssets.load();
+		File directory = new File(System.getProperty("java.io.tmpdir"), "canyonbunny-benchmarks");
+		level = new Level(BenchmarkAssets.writeLevel(directory, objectCount, true));
+		b2world = new World(new Vector2(0, -9.81f), true);
+		level.initPhysics(b2world);
+		level.updateStreaming(0, level.width);
+
+		//Collect from the back so the active ones stay spread over the level
+		int goldCoins = level.goldCoins.size*collectedPercent/100;
+		for(int i = 0; i < goldCoins; i++)
+		{
+			level.collect(level.goldCoins.get(level.goldCoins.size-1));
+		}
+		int feathers = level.feathers.size*collectedPercent/100;
+		for(int i = 0; i < feathers; i++)
+		{
+			level.collect(level.feathers.get(level.feathers.size-1));
+		}
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		b2world.dispose();
+	}
+
+	@Benchmark
+	public Level update()
+	{
+		level.update(1.0f/60.0f);
+		return level;
+	}
+}
@@ -0,0 +1,71 @@
+package com.hess.assignment1.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import objects.AbstractGameObject;
+
+/**
+ * Times AbstractGameObject.update for objects without a Box2D body, which is
+ * updateMotionX and updateMotionY with friction, acceleration and terminal velocity
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MotionBenchmark
+{
+	@Param({"100", "1000", "10000"})
+	public int objectCount;
+
+	private Mover[] movers;
+
+	/**
+	 * Game object without any assets that is pushed around like the bunny
+	 */
+	static class Mover extends AbstractGameObject
+	{
+		@Override
+		public void render(SpriteBatch batch){}
+	}
+
+	@Setup
+	public void setup()
+	{
+		Random random = new Random(42);
+		movers = new Mover[objectCount];
+		for(int i = 0; i < objectCount; i++)
+		{
+			Mover mover = new Mover();
+			mover.terminalVelocity.set(3.0f, 4.0f);
+			mover.friction.set(12.0f, 0.0f);
+			mover.acceleration.set(0.0f, -25.0f);
+			mover.velocity.set(random.nextFloat()*6-3, random.nextFloat()*8-4);
+			movers[i] = mover;
+		}
+	}
+
+	@Benchmark
+	public float updateMotion()
+	{
+		float sum = 0;
+		for(int i = 0; i < movers.length; i++)
+		{
+			Mover mover = movers[i];
+			mover.update(1.0f/60.0f);
+
+			//Keep them moving once friction has stopped them
+			if(mover.velocity.x == 0) mover.velocity.x = mover.terminalVelocity.x;
+			if(mover.position.y < -100) mover.position.y = 0;
+			sum += mover.position.x;
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,65 @@
+package com.hess.assignment1.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import game.Level;
+import utilities.Constants;
+import utilities.PhaseScheduler;
+
+/**
+ * Times Level.update of a large generated level with every chunk loaded, with the
+ * independent object updates split over the given number of threads. 1 thread is
+ * the serial update. Scaling depends on the cores of the machine it runs on
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParallelUpdateBenchmark
+{
+	@Param({"10000", "100000"})
+	public int objectCount;
+
+	@Param({"1", "4", "8", "16"})
+	public int threads;
+
+	private Level level;
+	private World b2world;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		BenchmarkAssets.load();
+		File directory = new File(System.getProperty("java.io.tmpdir"), "canyonbunny-benchmarks");
+		level = new Level(BenchmarkAssets.writeLevel(directory, objectCount, true));
+		b2world = new World(new Vector2(0, -9.81f), true);
+		level.initPhysics(b2world);
+		level.updateStreaming(0, level.width);
+		PhaseScheduler.instance.setThreads(threads);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		PhaseScheduler.instance.setThreads(Constants.PARALLEL_UPDATE_THREADS);
+		b2world.dispose();
+	}
+
+	@Benchmark
+	public Level update()
+	{
+		level.update(1.0f/60.0f);
+		return level;
+	}
+}
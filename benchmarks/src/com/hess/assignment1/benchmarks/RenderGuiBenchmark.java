@@ -0,0 +1,76 @@
+package com.hess.assignment1.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import game.WorldController;
+import game.WorldRenderer;
+import utilities.Constants;
+import utilities.GamePreferences;
+
+/**
+ * Times WorldRenderer.renderGui with the FPS counter and the feather power-up shown.
+ * The score changes once every scorePeriod frames, like it does while coins are
+ * being collected. With the HUD cache on, frames where nothing changed only draw
+ * the cached quad. Run with -prof gc to see what a frame of GUI allocates
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RenderGuiBenchmark
+{
+	//Frames between score changes
+	@Param({"1", "60"})
+	public int scorePeriod;
+
+	private WorldController worldController;
+	private WorldRenderer worldRenderer;
+	private SpriteBatch batch;
+	private int frame;
+
+	@Setup
+	public void setup()
+	{
+		BenchmarkAssets.load();
+		GamePreferences.instance.showFpsCounter = true;
+		worldController = new WorldController(new Game()
+		{
+			@Override
+			public void create(){}
+		});
+		worldController.level.bunnyHead.setFeatherPowerup(true);
+		worldRenderer = new WorldRenderer(worldController);
+		worldRenderer.resize((int)Constants.VIEWPORT_GUI_WIDTH, (int)Constants.VIEWPORT_GUI_HEIGHT);
+		batch = new SpriteBatch();
+		frame = 0;
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		batch.dispose();
+		worldRenderer.dispose();
+		worldController.dispose();
+	}
+
+	@Benchmark
+	public void renderGui()
+	{
+		frame++;
+		if(frame%scorePeriod == 0)
+		{
+			worldController.score += 100;
+			worldController.scoreVisual = worldController.score;
+		}
+		worldRenderer.renderGui(batch);
+	}
+}
@@ -0,0 +1,80 @@
+package com.hess.assignment1.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.badlogic.gdx.Game;
+import game.WorldController;
+import objects.BunnyHead;
+
+/**
+ * Times WorldController.testCollisions with the bunny sweeping along a row of
+ * objectCount gold coins and feathers, resting on a row of rocks. Collected pickups
+ * are put back at the start of every iteration. Without the broad phase every rock,
+ * coin and feather is tested, like testCollisions used to do
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TestCollisionsBenchmark
+{
+	@Param({"100", "1000", "10000"})
+	public int objectCount;
+
+	@Param({"true", "false"})
+	public boolean broadPhase;
+
+	private WorldController worldController;
+	private game.Level level;
+	private BunnyHead bunnyHead;
+	private float pickupY;
+	private float playerX;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		BenchmarkAssets.load();
+		worldController = new WorldController(new Game()
+		{
+			@Override
+			public void create(){}
+		});
+
+		//Swap in a level of the size being measured, with every chunk loaded
+		File directory = new File(System.getProperty("java.io.tmpdir"), "canyonbunny-benchmarks");
+		level = new game.Level(BenchmarkAssets.writeLevel(directory, objectCount, true));
+		level.updateStreaming(0, level.width);
+		worldController.level = level;
+		worldController.collisionBroadPhase = broadPhase;
+		bunnyHead = level.bunnyHead;
+		pickupY = level.goldCoins.get(0).position.y;
+		playerX = 0;
+	}
+
+	@Setup(Level.Iteration)
+	public void resetPickups()
+	{
+		level.resetPickups();
+	}
+
+	@Benchmark
+	public int testCollisions()
+	{
+		//Stop short of the goal so no carrots are spawned
+		playerX += 0.05f;
+		if(playerX > level.width-4) playerX = 0;
+		bunnyHead.lastPosition.set(bunnyHead.position);
+		bunnyHead.position.set(playerX, pickupY);
+		worldController.testCollisions();
+		return worldController.score;
+	}
+}
@@ -0,0 +1,12 @@
+package components;
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Marks an entity whose object's stateTime is advanced by the AnimationSystem
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class AnimationComponent implements Component
+{
+}
@@ -0,0 +1,13 @@
+package components;
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Marks an entity whose object follows its Box2D body, synced by the
+ * PhysicsSyncSystem
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class BodyComponent implements Component
+{
+}
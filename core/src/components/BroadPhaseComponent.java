@@ -0,0 +1,29 @@
+package components;
+import com.badlogic.ashley.core.Component;
+import objects.AbstractGameObject;
+import utilities.BroadPhase;
+
+/**
+ * Keeps an entity's object in a broad phase while the entity is in the engine, so the
+ * render and collision systems find it with a query instead of visiting every entity
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class BroadPhaseComponent implements Component
+{
+	public BroadPhase<AbstractGameObject> broadPhase;
+	
+	/**
+	 * Keeps obj in broadPhase. Only obj is ever inserted through this component, so
+	 * broadPhase can be stored for any object type
+	 * 
+	 * @param obj
+	 * @param broadPhase
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends AbstractGameObject> BroadPhaseComponent(T obj, BroadPhase<? super T> broadPhase)
+	{
+		this.broadPhase = (BroadPhase<AbstractGameObject>)broadPhase;
+	}
+}
@@ -0,0 +1,20 @@
+package components;
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Marks an entity whose object the player can touch. The CollisionSystem reports every
+ * such object overlapping the player, unless firstHitOnly is set: then the rest of its
+ * broad phase is skipped for that step once it has been reported
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class CollisionComponent implements Component
+{
+	public boolean firstHitOnly;
+	
+	public CollisionComponent(boolean firstHitOnly)
+	{
+		this.firstHitOnly = firstHitOnly;
+	}
+}
@@ -0,0 +1,13 @@
+package components;
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Marks an entity whose object steers its kinematic Box2D body through its velocity.
+ * The KinematicBodySystem hands the velocity to the body after the object's update
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class KinematicComponent implements Component
+{
+}
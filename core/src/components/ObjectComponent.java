@@ -0,0 +1,19 @@
+package components;
+import com.badlogic.ashley.core.Component;
+import objects.AbstractGameObject;
+
+/**
+ * Links an entity to the game object it stands for. Every entity in a level has one
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class ObjectComponent implements Component
+{
+	public AbstractGameObject object;
+	
+	public ObjectComponent(AbstractGameObject object)
+	{
+		this.object = object;
+	}
+}
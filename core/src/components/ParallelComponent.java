@@ -0,0 +1,13 @@
+package components;
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Marks an entity whose object's update only changes the object and its own body, so
+ * it can be updated on a worker thread at the same time as other objects
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class ParallelComponent implements Component
+{
+}
@@ -0,0 +1,19 @@
+package components;
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Marks an entity whose object is drawn by the RenderSystem while it is in view.
+ * Lower layers are drawn first
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class RenderComponent implements Component
+{
+	public int layer;
+	
+	public RenderComponent(int layer)
+	{
+		this.layer = layer;
+	}
+}
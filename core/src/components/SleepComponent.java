@@ -0,0 +1,14 @@
+package components;
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Marks an entity whose object can be put to sleep while it is far from the camera and
+ * player. A sleeping object's entity stays in the engine, but no system updates it until
+ * it wakes up
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class SleepComponent implements Component
+{
+}
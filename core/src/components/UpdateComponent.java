@@ -0,0 +1,13 @@
+package components;
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Marks an entity whose object still runs its own update(deltaTime), for objects
+ * with behaviour that hasn't been split into components yet
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class UpdateComponent implements Component
+{
+}
@@ -10,7 +10,7 @@ import objects.AbstractGameObject;
 
 /**
  * This class represents a group of Cloud game objects. They are dispersed in the background
- * based on the length provided upon instantiation 
+ * around the camera based on the length provided upon instantiation 
  * 
  * @author Raistlin Hess
  *
@@ -20,6 +20,7 @@ public class Clouds extends AbstractGameObject
 	private float length;
 	private Array<TextureRegion> regClouds;
 	private Array<Cloud> clouds;
+	private float scrollX;	//Camera x position the clouds are centered on
 	
 	/**
 	 * Sets the Clouds length to the parameter length
@@ -51,7 +52,8 @@ public class Clouds extends AbstractGameObject
 		for(int i = 0; i < numClouds; i++)
 		{
 			Cloud cloud = spawnCloud();
-			cloud.position.x = i*distFac;
+			cloud.position.x = scrollX-length/2+i*distFac;
+			cloud.savePreviousState();
 			clouds.add(cloud);
 		}
 	}
@@ -70,7 +72,7 @@ public class Clouds extends AbstractGameObject
 		//Select random cloud asset
 		cloud.setRegion(regClouds.random());
 		Vector2 pos = new Vector2();
-		pos.x = length+10;	//Position after end of the level
+		pos.x = scrollX+length/2+10;	//Position after the right edge of the area
 		pos.y += 1.75;		//Base position
 		pos.y += MathUtils.random(0.0f, 0.2f) * (MathUtils.randomBoolean() ? 1 : -1);	//Adds random value to position
 		cloud.position.set(pos);
@@ -84,6 +86,7 @@ public class Clouds extends AbstractGameObject
 		cloud.terminalVelocity.set(speed);
 		speed.x *= -1;	//Float to the left
 		cloud.velocity.set(speed);
+		cloud.savePreviousState();
 		
 		return cloud;
 	}
@@ -125,19 +128,62 @@ public class Clouds extends AbstractGameObject
 		}
 	}
 	
+	/**
+	 * Centers the area covered by clouds on the camera's x position
+	 * 
+	 * @param camPosition
+	 */
+	public void updateScrollPosition(Vector2 camPosition)
+	{
+		scrollX = camPosition.x;
+	}
+	
+	@Override
+	public void savePreviousState()
+	{
+		for(Cloud cloud: clouds)
+		{
+			cloud.savePreviousState();
+		}
+	}
+	
+	@Override
+	public void interpolate(float alpha)
+	{
+		for(Cloud cloud: clouds)
+		{
+			cloud.interpolate(alpha);
+		}
+	}
+	
+	@Override
+	public void endInterpolation()
+	{
+		for(Cloud cloud: clouds)
+		{
+			cloud.endInterpolation();
+		}
+	}
+	
 	@Override
 	public void update(float deltaTime)
 	{
+		float areaStart = scrollX-length/2-10;
+		float areaLength = length+20;
 		for(int i = clouds.size-1; i >= 0; i--)
 		{
 			Cloud cloud = clouds.get(i);
 			cloud.update(deltaTime);
-			if(cloud.position.x < -10)
+			if(cloud.position.x < areaStart || cloud.position.x > areaStart+areaLength)
 			{
-				//If cloud has moved too far left, remove it
-				//and respawn
-				clouds.removeIndex(i);
-				clouds.add(spawnCloud());
+				//If cloud has left the area around the camera, respawn
+				//it on the other side so the clouds keep their spacing
+				float offset = (cloud.position.x-areaStart)%areaLength;
+				if(offset < 0) offset += areaLength;
+				Cloud newCloud = spawnCloud();
+				newCloud.position.x = areaStart+offset;
+				newCloud.savePreviousState();
+				clouds.set(i, newCloud);
 			}
 		}
 	}
@@ -1,5 +1,6 @@
 package decoration;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
@@ -16,7 +17,13 @@ public class Mountains extends AbstractGameObject
 {
 	private TextureRegion regMountainLeft;
 	private TextureRegion regMountainRight;
-	private int length;	//This represents the number of times Mountains will be drawn
+	private int length;	//This represents the width around the camera the Mountains cover
+	//Each layer's offsetX, offsetY, tint and parallax speed, from back to front
+	private static final float[][] LAYERS = {
+		{0.5f, 0.5f, 0.5f, 0.8f},	//Distant mountains (dark gray), scrolling at 80% of camera speed
+		{0.25f, 0.25f, 0.7f, 0.5f},	//Distant mountains (gray), scrolling at 50% of camera speed
+		{0.0f, 0.0f, 0.9f, 0.3f}	//Distant mountains (light gray), scrolling at 30% of camera speed
+	};
 	
 	/**
 	 * Sets the length of the Mountains to the parameter length and calls init()
@@ -44,7 +51,7 @@ public class Mountains extends AbstractGameObject
 	}
 	
 	/**
-	 * Draws the mountains so that they cover the entire background of the level
+	 * Draws the mountains so that they cover the background around the camera.
 	 * The mountains also move slightly with the camera
 	 */
 	private void drawMountain(SpriteBatch batch, float offsetX, float offsetY, float tintColor, float parallaxSpeedX)
@@ -54,10 +61,13 @@ public class Mountains extends AbstractGameObject
 		float xRel = dimension.x*offsetX;
 		float yRel = dimension.y*offsetY;
 		
-		//Mountains span the whole level
-		int mountainLength = 0;
-		mountainLength += MathUtils.ceil(length/(2*dimension.x)*(1-parallaxSpeedX));
-		mountainLength += MathUtils.ceil(0.5f+offsetX);
+		//Skip the mountain pairs left of the area around the camera
+		float left = position.x-length/2.0f;
+		float firstX = origin.x+xRel+position.x*parallaxSpeedX;
+		xRel += MathUtils.floor((left-firstX)/(2*dimension.x))*2*dimension.x;
+		
+		//Mountains span the area around the camera
+		int mountainLength = getMountainPairs();
 		
 		for(int i = 0; i < mountainLength; i++)
 		{
@@ -76,6 +86,80 @@ public class Mountains extends AbstractGameObject
 		batch.setColor(1,1,1,1);
 	}
 	
+	/**
+	 * Returns the number of mountain pairs drawn per layer to cover the area
+	 * around the camera
+	 */
+	private int getMountainPairs()
+	{
+		return MathUtils.ceil(length/(2*dimension.x))+1;
+	}
+	
+	/**
+	 * Returns the number of mountain layers
+	 */
+	public int getLayerCount()
+	{
+		return LAYERS.length;
+	}
+	
+	/**
+	 * Returns the number of sprites cacheLayer(cache, layer) adds to a cache
+	 */
+	public int getCachedSpriteCount()
+	{
+		return 2*getMountainPairs();
+	}
+	
+	/**
+	 * Adds the tinted sprites of one mountain layer to cache as if the camera were
+	 * at x = 0. getLayerOffsetX(layer) tells how far to move them for the current
+	 * camera position
+	 * 
+	 * @param cache
+	 * @param layer
+	 */
+	public void cacheLayer(SpriteCache cache, int layer)
+	{
+		float[] params = LAYERS[layer];
+		TextureRegion reg = null;
+		cache.setColor(params[2], params[2], params[2], 1);
+		float xRel = dimension.x*params[0];
+		float yRel = dimension.y*params[1];
+		
+		for(int i = 0; i < getMountainPairs(); i++)
+		{
+			//Left Mountain
+			reg = regMountainLeft;
+			cache.add(reg.getTexture(), origin.x+xRel, origin.y+yRel+position.y, origin.x, origin.y, dimension.x, dimension.y, scale.x, scale.y, rotation, reg.getRegionX(), reg.getRegionY(), reg.getRegionWidth(), reg.getRegionHeight(), false, false);
+			xRel += dimension.x;
+			
+			//Right mountain
+			reg = regMountainRight;
+			cache.add(reg.getTexture(), origin.x+xRel, origin.y+yRel+position.y, origin.x, origin.y, dimension.x, dimension.y, scale.x, scale.y, rotation, reg.getRegionX(), reg.getRegionY(), reg.getRegionWidth(), reg.getRegionHeight(), false, false);
+			xRel += dimension.x;
+		}
+		
+		//Reset color to white
+		cache.setColor(1,1,1,1);
+	}
+	
+	/**
+	 * Returns how far the sprites added by cacheLayer(cache, layer) have to be moved
+	 * along x to match what render(batch) draws. The mountains repeat every pair, so
+	 * the strip is moved in whole pairs to stay around the camera
+	 * 
+	 * @param layer
+	 * @return
+	 */
+	public float getLayerOffsetX(int layer)
+	{
+		float[] params = LAYERS[layer];
+		float left = position.x-length/2.0f;
+		float firstX = origin.x+dimension.x*params[0]+position.x*params[3];
+		return position.x*params[3]+MathUtils.floor((left-firstX)/(2*dimension.x))*2*dimension.x;
+	}
+	
 	/**
 	 * Update the Mountain's position based on the camera's x position
 	 * 
@@ -92,14 +176,10 @@ public class Mountains extends AbstractGameObject
 	@Override
 	public void render(SpriteBatch batch)
 	{
-		//Distant mountains (dark gray), scrolling at 80% of camera speed
-		drawMountain(batch, 0.5f, 0.5f, 0.5f, 0.8f);
-		
-		//Distant mountains (gray), scrolling at 50% of camera speed
-		drawMountain(batch, 0.25f, 0.25f, 0.7f, 0.5f);
-		
-		//Distant mountains (light gray), scrolling at 30% of camera speed
-		drawMountain(batch, 0.0f, 0.0f, 0.9f, 0.3f);
+		for(float[] params: LAYERS)
+		{
+			drawMountain(batch, params[0], params[1], params[2], params[3]);
+		}
 	}
 
 }
@@ -1,12 +1,13 @@
 package decoration;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
 import game.Assets;
 import objects.AbstractGameObject;
 
 /**
  * This represents the game object WaterOverlay. Provides the illusion
- * of water spanning the whole level
+ * of water spanning the whole level by following the camera
  * 
  * @author Raistlin Hess
  *
@@ -37,6 +38,16 @@ public class WaterOverlay extends AbstractGameObject
 		origin.x = -dimension.x/2;
 	}
 	
+	/**
+	 * Keeps the water centered on the camera's x position
+	 * 
+	 * @param camPosition
+	 */
+	public void updateScrollPosition(Vector2 camPosition)
+	{
+		position.set(camPosition.x, position.y);
+	}
+	
 	@Override
 	public void render(SpriteBatch batch)
 	{
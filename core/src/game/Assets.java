@@ -3,16 +3,21 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetErrorListener;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.SkinLoader.SkinParameter;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
 import utilities.Constants;
 
 /**
@@ -34,16 +39,38 @@ public class Assets implements Disposable, AssetErrorListener
 	public AssetLevelDecoration levelDecoration;
 	public AssetSounds sounds;
 	public AssetMusic music;
+	public AssetUI ui;
+	public AssetParticles particles;
+	private long loadStartTime;
+	private boolean loaded;
 	
 	
 	private Assets(){}
 	
 	/**
-	 * Initializes the assetManager and each unique object
+	 * Initializes the assetManager and each unique object, blocking until
+	 * everything is loaded
 	 */
 	public void init(AssetManager assetManager)
+	{
+		load(assetManager);
+		assetManager.finishLoading();
+		onLoaded();
+	}
+	
+	/**
+	 * Queues every asset in assetManager without waiting for them. Call update()
+	 * until it returns true before using any of the game resource objects
+	 */
+	public void load(AssetManager assetManager)
 	{
 		this.assetManager = assetManager;
+		loaded = false;
+		loadStartTime = TimeUtils.millis();
+		
+		//Let textures lost with the GL context be reloaded through assetManager,
+		//which keeps their reference counts
+		Texture.setAssetManager(assetManager);
 		
 		//Set asset manager error handler
 		assetManager.setErrorListener(this);
@@ -61,9 +88,60 @@ public class Assets implements Disposable, AssetErrorListener
 		//Load music
 		assetManager.load("music/keith303_-_brand_new_highscore.mp3", Music.class);
 		
-		//Start loading assets and wait until finished
-		assetManager.finishLoading();
-		Gdx.app.debug(TAG, "# of assets loaded: "+assetManager.getAssetNames().size);
+		//Load particle effects, their images are read from the same folder
+		assetManager.load(Constants.PARTICLES_DUST, ParticleEffect.class);
+		
+		//Load menu skins, their atlases are loaded as dependencies
+		assetManager.load(Constants.SKIN_CANYONBUNNY_UI, Skin.class, new SkinParameter(Constants.TEXTURE_ATLAS_UI));
+		assetManager.load(Constants.SKIN_LIBGDX_UI, Skin.class, new SkinParameter(Constants.TEXTURE_ATLAS_LIBGDX_UI));
+	}
+	
+	/**
+	 * Keeps loading for up to budgetMillis. The atlas is decoded and the audio is
+	 * read on the AssetManager's background thread, so this only spends the
+	 * budget on uploading textures. Returns true once everything is loaded
+	 * 
+	 * @param budgetMillis
+	 * @return
+	 */
+	public boolean update(int budgetMillis)
+	{
+		if(loaded) return true;
+		if(assetManager.update(budgetMillis)) onLoaded();
+		return loaded;
+	}
+	
+	/**
+	 * Returns how much has been loaded, from 0 to 1
+	 * 
+	 * @return
+	 */
+	public float getProgress()
+	{
+		return loaded ? 1 : assetManager.getProgress();
+	}
+	
+	/**
+	 * Called when the game comes back from the background. If the GL context was lost,
+	 * the backend has already queued every texture on assetManager for reloading
+	 * before this runs, so this only finishes that reload. Sounds, music, the atlas
+	 * regions and the fonts' glyphs stay in memory
+	 */
+	public void onResume()
+	{
+		if(!loaded) return;
+		
+		long startTime = TimeUtils.millis();
+		if(!assetManager.update()) assetManager.finishLoading();
+		Gdx.app.debug(TAG, "Finished reloading textures in "+TimeUtils.timeSinceMillis(startTime)+" ms");
+	}
+	
+	/**
+	 * Creates the game resource objects once assetManager has everything
+	 */
+	private void onLoaded()
+	{
+		Gdx.app.debug(TAG, "# of assets loaded: "+assetManager.getAssetNames().size+" in "+TimeUtils.timeSinceMillis(loadStartTime)+" ms");
 		for(String a: assetManager.getAssetNames())
 		{
 			Gdx.app.debug(TAG, "asset: "+a);
@@ -85,6 +163,9 @@ public class Assets implements Disposable, AssetErrorListener
 		levelDecoration = new AssetLevelDecoration(atlas);
 		sounds = new AssetSounds(assetManager);
 		music = new AssetMusic(assetManager);
+		ui = new AssetUI(assetManager);
+		particles = new AssetParticles(assetManager);
+		loaded = true;
 	}
 
 	/**
@@ -294,6 +375,43 @@ public class Assets implements Disposable, AssetErrorListener
 		}
 	}
 	
+	/**
+	 * This class keeps a pool for every particle effect. Each effect is parsed once
+	 * by the AssetManager and the pools hand out copies of it, so spawning an effect
+	 * never touches a file
+	 * 
+	 * @author Raistlin Hess
+	 *
+	 */
+	public class AssetParticles
+	{
+		public final ParticleEffectPool dust;
+		
+		public AssetParticles(AssetManager am)
+		{
+			dust = new ParticleEffectPool(am.get(Constants.PARTICLES_DUST, ParticleEffect.class), Constants.PARTICLES_POOL_SIZE, Constants.PARTICLES_POOL_MAX);
+		}
+	}
+	
+	/**
+	 * This class holds the skins of the menu screen. They stay loaded for as long as
+	 * the AssetManager, so showing the menu again doesn't load anything
+	 * 
+	 * @author Raistlin Hess
+	 *
+	 */
+	public class AssetUI
+	{
+		public final Skin skinCanyonBunny;
+		public final Skin skinLibgdx;
+		
+		public AssetUI(AssetManager am)
+		{
+			skinCanyonBunny = am.get(Constants.SKIN_CANYONBUNNY_UI, Skin.class);
+			skinLibgdx = am.get(Constants.SKIN_LIBGDX_UI, Skin.class);
+		}
+	}
+	
 	/**
 	 * This class attaches all of the music for the game to an instance
 	 * variable for easy calling and manipulation
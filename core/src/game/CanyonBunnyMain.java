@@ -3,9 +3,10 @@ import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
-import gui.MenuScreen;
-import utilities.AudioManager;
+import gui.LoadingScreen;
+import utilities.FrameProfiler;
 import utilities.GamePreferences;
+import utilities.PhaseScheduler;
 
 /**
  * This class is the heart and soul of the game. 
@@ -21,15 +22,19 @@ public class CanyonBunnyMain extends Game
 		//Set libGDX log level
 		Gdx.app.setLogLevel(Application.LOG_DEBUG);
 		
-		//Load assets
-		Assets.instance.init(new AssetManager());
-		
-		//Load preferences for audio settings and start music
+		//Load preferences for audio settings, the profiler follows them from now on
+		GamePreferences.instance.addListener(FrameProfiler.instance);
 		GamePreferences.instance.load();
-		AudioManager.instance.play(Assets.instance.music.song01);
 		
-		//Start game at menu screen
-		setScreen(new MenuScreen(this));
+		//Start loading assets, the loading screen moves on to the menu screen
+		Assets.instance.load(new AssetManager());
+		setScreen(new LoadingScreen(this));
 	}
 	
+	@Override
+	public void dispose()
+	{
+		super.dispose();
+		PhaseScheduler.instance.dispose();
+	}
 }
@@ -0,0 +1,174 @@
+package game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import objects.Carrot;
+import utilities.GameRandom;
+
+/**
+ * This class keeps a number of Carrots and their Box2D bodies ready so they can be
+ * dropped on the player without creating anything when the goal is reached. Bodies
+ * of free carrots are deactivated instead of destroyed and reused on the next spawn
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class CarrotPool
+{
+	public static final String TAG = CarrotPool.class.getName();
+	private final int size;
+	private final Array<Carrot> freeCarrots;
+	private World b2world;
+	public int hits;	//Carrots handed out from the pool
+	public int misses;	//Carrots that had to be created because the pool was empty
+
+	/**
+	 * Creates an empty pool that holds up to size carrots. init(World) fills it
+	 *
+	 * @param size
+	 */
+	public CarrotPool(int size)
+	{
+		this.size = size;
+		freeCarrots = new Array<Carrot>(false, size);
+		hits = 0;
+		misses = 0;
+	}
+
+	/**
+	 * Fills the pool and gives every free carrot a deactivated body in b2world. Bodies
+	 * belonging to a different world are dropped, since that world owns them
+	 *
+	 * @param b2world
+	 */
+	public void init(World b2world)
+	{
+		if(this.b2world != b2world)
+		{
+			for(Carrot carrot: freeCarrots)
+			{
+				carrot.body = null;
+			}
+			this.b2world = b2world;
+		}
+
+		while(freeCarrots.size < size)
+		{
+			freeCarrots.add(new Carrot());
+		}
+		for(Carrot carrot: freeCarrots)
+		{
+			if(carrot.body == null) createBody(carrot);
+		}
+		Gdx.app.debug(TAG, "Carrot pool ready with "+freeCarrots.size+" carrots");
+	}
+
+	/**
+	 * Creates a deactivated dynamic body for carrot with a randomly scaled shape
+	 *
+	 * @param carrot
+	 */
+	private void createBody(Carrot carrot)
+	{
+		float carrotShapeScale = 0.5f;
+		float carrotScale = GameRandom.instance.random(0.5f, 1.5f);
+
+		BodyDef bodyDef = new BodyDef();
+		bodyDef.type = BodyType.DynamicBody;
+		bodyDef.active = false;
+		Body body = b2world.createBody(bodyDef);
+		carrot.body = body;
+
+		//Create rectangular shape for carrot to allow collisions
+		//with other objects
+		PolygonShape polygonShape = new PolygonShape();
+		float halfWidth = carrot.bounds.width/2.0f*carrotScale;
+		float halfHeight = carrot.bounds.height/2.0f*carrotScale;
+		polygonShape.setAsBox(halfWidth*carrotShapeScale, halfHeight*carrotShapeScale);
+
+		//Set physics attributes
+		FixtureDef fixtureDef = new FixtureDef();
+		fixtureDef.shape = polygonShape;
+		fixtureDef.density = 50;
+		fixtureDef.restitution = 0.5f;
+		fixtureDef.friction = 0.5f;
+		body.createFixture(fixtureDef);
+		polygonShape.dispose();
+	}
+
+	/**
+	 * Returns a carrot whose body is active and placed at (x, y) with the rotation
+	 * angle in radians. Creates a new carrot if the pool is empty
+	 *
+	 * @param x
+	 * @param y
+	 * @param angle
+	 * @return
+	 */
+	public Carrot obtain(float x, float y, float angle)
+	{
+		Carrot carrot;
+		if(freeCarrots.size > 0)
+		{
+			carrot = freeCarrots.pop();
+			hits++;
+		}
+		else
+		{
+			carrot = new Carrot();
+			createBody(carrot);
+			misses++;
+		}
+
+		Body body = carrot.body;
+		body.setTransform(x, y, angle);
+		body.setLinearVelocity(0, 0);
+		body.setAngularVelocity(0);
+		body.setActive(true);
+		body.setAwake(true);
+
+		//Start interpolating from where the carrot was spawned
+		carrot.position.set(x, y);
+		carrot.rotation = angle*MathUtils.radiansToDegrees;
+		carrot.savePreviousState();
+		return carrot;
+	}
+
+	/**
+	 * Deactivates the body of carrot and returns it to the pool. Carrots beyond the
+	 * pool size are left for the garbage collector and their bodies are destroyed
+	 *
+	 * @param carrot
+	 */
+	public void free(Carrot carrot)
+	{
+		if(freeCarrots.size >= size)
+		{
+			if(b2world != null && carrot.body != null) b2world.destroyBody(carrot.body);
+			carrot.body = null;
+			return;
+		}
+		if(carrot.body != null) carrot.body.setActive(false);
+		freeCarrots.add(carrot);
+	}
+
+	/**
+	 * Returns every carrot in carrots to the pool and empties carrots
+	 *
+	 * @param carrots
+	 */
+	public void freeAll(Array<Carrot> carrots)
+	{
+		for(Carrot carrot: carrots)
+		{
+			free(carrot);
+		}
+		carrots.clear();
+	}
+}
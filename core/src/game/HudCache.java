@@ -0,0 +1,128 @@
+package game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * This class keeps the GUI in an offscreen FrameBuffer the size of the window. The GUI
+ * is only drawn into it again after invalidate() is called, and every other frame it
+ * costs one textured quad. The buffer holds premultiplied alpha so half transparent
+ * icons blend the same as when they are drawn straight to the screen
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class HudCache implements Disposable
+{
+	private FrameBuffer frameBuffer;
+	private boolean dirty;
+
+	/**
+	 * The buffer is created by resize(int, int)
+	 */
+	public HudCache()
+	{
+		dirty = true;
+	}
+
+	/**
+	 * Recreates the buffer for the new window size if it changed
+	 *
+	 * @param width
+	 * @param height
+	 */
+	public void resize(int width, int height)
+	{
+		if(width <= 0 || height <= 0) return;
+		if(frameBuffer != null && frameBuffer.getWidth() == width && frameBuffer.getHeight() == height) return;
+		if(frameBuffer != null) frameBuffer.dispose();
+		frameBuffer = new FrameBuffer(Format.RGBA8888, width, height, false);
+		dirty = true;
+	}
+
+	/**
+	 * Returns true if the buffer exists and can be drawn
+	 */
+	public boolean isReady()
+	{
+		return frameBuffer != null;
+	}
+
+	/**
+	 * Makes the next frame draw the GUI into the buffer again
+	 */
+	public void invalidate()
+	{
+		dirty = true;
+	}
+
+	/**
+	 * Returns true if the GUI has to be drawn into the buffer again
+	 */
+	public boolean isDirty()
+	{
+		return dirty;
+	}
+
+	/**
+	 * Starts drawing into the buffer. Everything batch draws until end(SpriteBatch) is
+	 * stored with premultiplied alpha
+	 *
+	 * @param batch
+	 */
+	public void begin(SpriteBatch batch)
+	{
+		frameBuffer.begin();
+		Gdx.gl.glClearColor(0, 0, 0, 0);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+		//SpriteBatch leaves the blend function alone when it is set to -1
+		batch.setBlendFunction(-1, -1);
+		Gdx.gl.glBlendFuncSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+	}
+
+	/**
+	 * Stops drawing into the buffer
+	 *
+	 * @param batch
+	 */
+	public void end(SpriteBatch batch)
+	{
+		batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		frameBuffer.end();
+		dirty = false;
+	}
+
+	/**
+	 * Draws the buffer over the whole view of camera. The camera has to have its y-axis
+	 * flipped like the GUI camera, which cancels out the buffer being stored upside down
+	 *
+	 * @param batch
+	 * @param camera
+	 */
+	public void render(SpriteBatch batch, Camera camera)
+	{
+		Texture texture = frameBuffer.getColorBufferTexture();
+		batch.setProjectionMatrix(camera.combined);
+		batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		batch.begin();
+			batch.draw(texture, 0, 0, camera.viewportWidth, camera.viewportHeight);
+		batch.end();
+		batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+	}
+
+	/**
+	 * Frees the buffer
+	 */
+	@Override
+	public void dispose()
+	{
+		if(frameBuffer != null) frameBuffer.dispose();
+		frameBuffer = null;
+	}
+}
@@ -1,8 +1,40 @@
 package game;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.Files.FileType;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Array;
+import components.AnimationComponent;
+import components.BodyComponent;
+import components.BroadPhaseComponent;
+import components.CollisionComponent;
+import components.KinematicComponent;
+import components.ObjectComponent;
+import components.ParallelComponent;
+import components.RenderComponent;
+import components.SleepComponent;
+import components.UpdateComponent;
 import decoration.Clouds;
 import decoration.Mountains;
 import decoration.WaterOverlay;
@@ -13,10 +45,31 @@ import objects.Feather;
 import objects.Goal;
 import objects.GoldCoin;
 import objects.Rock;
+import systems.AnimationSystem;
+import systems.BroadPhaseIndex;
+import systems.CollisionSystem;
+import systems.KinematicBodySystem;
+import systems.ObjectSet;
+import systems.ParallelUpdateSystem;
+import systems.PhysicsSyncSystem;
+import systems.RenderSystem;
+import systems.SleepListener;
+import systems.UpdateSystem;
+import utilities.BroadPhase;
+import utilities.Constants;
+import utilities.PartitionedArray;
+import utilities.SpatialHashGrid;
+import utilities.SweepAndPrune;
 
 /**
  * This class is responsible for reading the level asset and creating and placing
- * game objects based on the pixels in it.
+ * game objects based on the pixels in it. The level is split into chunks and only
+ * the chunks around the camera and player have their objects created. Every object
+ * in play has an entity in the level's Ashley engine, and the engine's systems update
+ * them. The render and collision systems find objects through the broad phases named
+ * by their components, so a new kind of object only needs the right components and
+ * no code of its own in the level or controller. Rocks, coins and
+ * feathers far from the camera and player are put to sleep and not updated at all
  * 
  * @author Raistlin Hess
  *
@@ -24,17 +77,75 @@ import objects.Rock;
 public class Level
 {
 	public static final String TAG = Level.class.getName();
+	//Compiled level format, see desktop LevelCompiler
+	public static final String COMPILED_LEVEL_EXTENSION = ".lvl";
+	public static final int COMPILED_LEVEL_MAGIC = 0x43424C56;	//"CBLV"
+	public static final int COMPILED_LEVEL_VERSION = 1;
 	//Objects
 	public Goal goal;
 	public BunnyHead bunnyHead;
+	private Vector2 spawnPosition = new Vector2();
+	//Objects of the loaded chunks, collected pickups are kept behind the active ones
 	public Array<Rock> rocks;
-	public Array<GoldCoin> goldCoins;
-	public Array<Feather> feathers;
+	public PartitionedArray<GoldCoin> goldCoins;
+	public PartitionedArray<Feather> feathers;
 	public Array<Carrot> carrots;
+	//Collision broad phase. Rocks never move along x, so they are kept sorted by it
+	public SweepAndPrune<Rock> rockSweep;
+	public SpatialHashGrid<GoldCoin> goldCoinGrid;
+	public SpatialHashGrid<Feather> featherGrid;
+	//Entities of the objects in play, updated by the engine's systems
+	public Engine engine;
+	//Objects that are interpolated between steps, awake ones first
+	private ObjectSet interpolatedObjects;
+	//Keeps the objects of the entities in play in their broad phases
+	private BroadPhaseIndex broadPhaseIndex;
+	public RenderSystem renderSystem;
+	public CollisionSystem collisionSystem;
+	private int nextEntityId;
+	//Sleeping
+	//Objects that can be put to sleep, awake ones first
+	private ObjectSet sleepableObjects;
+	private Array<SleepListener> sleepListeners = new Array<SleepListener>();
+	private float time;
+	private Rectangle activeArea = new Rectangle();
+	private Array<AbstractGameObject> nearbyObjects = new Array<AbstractGameObject>();
 	//Decoration
 	public Clouds clouds;
 	public Mountains mountains;
 	public WaterOverlay waterOverlay;
+	//Streaming
+	public int width;
+	private LevelChunk[] chunks;
+	private LevelChunk lastRockChunk;
+	private int maxRockLength;
+	private int loadedFirst;
+	private int loadedLast;
+	private World b2world;
+	//Culling
+	public int numVisible;
+	public int numCulled;
+	
+	/**
+	 * An entity whose hash code is the same on every run. Ashley keeps entities in
+	 * hashed sets that draw from MathUtils.random when keys collide, so identity hash
+	 * codes would make the level's random numbers differ between runs with the same seed
+	 */
+	private static class LevelEntity extends Entity
+	{
+		private final int id;
+		
+		public LevelEntity(int id)
+		{
+			this.id = id;
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return id;
+		}
+	}
 	
 	/**
 	 * This assigns different color values to unique game objects
@@ -95,7 +206,8 @@ public class Level
 	
 	/**
 	 * This method loads the asset matching the parameter filename and places objects 
-	 * at positions based upon the colors in the level asset
+	 * at positions based upon the colors in the level asset. If the level has been
+	 * compiled, the compiled level is loaded instead
 	 * 
 	 * @param filename
 	 */
@@ -106,22 +218,205 @@ public class Level
 		
 		//Objects
 		rocks = new Array<Rock>();
-		goldCoins = new Array<GoldCoin>();
-		feathers = new Array<Feather>();
-		carrots = new Array<Carrot>();
+		goldCoins = new PartitionedArray<GoldCoin>();
+		feathers = new PartitionedArray<Feather>();
+		carrots = new Array<Carrot>(Constants.CARROTS_SPAWN_MAX);
+		initEngine();
 		
+		//Prefer the compiled level and only scan the image if there isn't one
+		width = -1;
+		FileHandle compiledFile = Gdx.files.internal(getCompiledFilename(filename));
+		if(compiledFile.exists())
+		{
+			try
+			{
+				width = loadCompiled(compiledFile);
+			}
+			catch(IOException e)
+			{
+				Gdx.app.error(TAG, "Couldn't load compiled level '"+compiledFile.path()+"'", e);
+				bunnyHead = null;
+				goal = null;
+				engine.removeAllEntities();
+				width = -1;
+			}
+		}
+		if(width < 0)
+		{
+			width = loadPixmap(filename);
+		}
+		
+		//Rocks can reach into later chunks, so chunks that far behind must still be loaded
+		maxRockLength = 0;
+		for(LevelChunk chunk: chunks)
+		{
+			maxRockLength = Math.max(maxRockLength, chunk.getMaxRockLength());
+		}
+		
+		//Decoration only covers the area around the camera
+		float decorationWidth = 2*Constants.LEVEL_STREAMING_DISTANCE;
+		clouds = new Clouds(decorationWidth);
+		clouds.position.set(0,2);
+		mountains = new Mountains((int)decorationWidth);
+		mountains.position.set(-1,-1);
+		waterOverlay = new WaterOverlay(decorationWidth);
+		waterOverlay.position.set(0, -3.75f);
+		
+		//Nothing has moved yet, so there is nothing to interpolate from
+		savePreviousState();
+		Gdx.app.debug(TAG, "Level '"+filename+"' loaded.");
+	}
+	
+	/**
+	 * Creates the Ashley engine and the systems that update the objects' entities
+	 */
+	private void initEngine()
+	{
+		engine = new Engine();
+		nextEntityId = 0;
+		sleepListeners.clear();
+		addSystem(new UpdateSystem(Constants.PRIORITY_UPDATE_SYSTEM));
+		addSystem(new ParallelUpdateSystem(Constants.PRIORITY_PARALLEL_UPDATE_SYSTEM));
+		addSystem(new KinematicBodySystem(Constants.PRIORITY_KINEMATIC_BODY_SYSTEM));
+		addSystem(new PhysicsSyncSystem(Constants.PRIORITY_PHYSICS_SYNC_SYSTEM));
+		addSystem(new AnimationSystem(Constants.PRIORITY_ANIMATION_SYSTEM));
+		interpolatedObjects = addObjectSet(Family.all(ObjectComponent.class).get());
+		sleepableObjects = addObjectSet(Family.all(ObjectComponent.class, SleepComponent.class).get());
+		broadPhaseIndex = new BroadPhaseIndex();
+		broadPhaseIndex.attach(engine);
+		renderSystem = new RenderSystem(broadPhaseIndex);
+		renderSystem.attach(engine);
+		collisionSystem = new CollisionSystem(broadPhaseIndex);
+		collisionSystem.attach(engine);
+		time = 0;
+	}
+	
+	/**
+	 * Adds system to the engine and tells it when objects fall asleep or wake up if
+	 * it needs to know
+	 * 
+	 * @param system
+	 */
+	private void addSystem(EntitySystem system)
+	{
+		engine.addSystem(system);
+		if(system instanceof SleepListener) sleepListeners.add((SleepListener)system);
+	}
+	
+	/**
+	 * Returns a set that follows the objects of family in the engine and which of them
+	 * are asleep
+	 * 
+	 * @param family
+	 * @return
+	 */
+	private ObjectSet addObjectSet(Family family)
+	{
+		ObjectSet objectSet = new ObjectSet(family);
+		objectSet.attach(engine);
+		sleepListeners.add(objectSet);
+		return objectSet;
+	}
+	
+	/**
+	 * Creates the entity of obj with the given components besides its ObjectComponent.
+	 * It is not added to the engine
+	 * 
+	 * @param obj
+	 * @param components
+	 */
+	private void createEntity(AbstractGameObject obj, Component... components)
+	{
+		Entity entity = new LevelEntity(nextEntityId++);
+		entity.add(new ObjectComponent(obj));
+		for(Component component: components)
+		{
+			entity.add(component);
+		}
+		obj.entity = entity;
+	}
+	
+	/**
+	 * Creates the entity of a coin or feather, kept in grid and drawn in layer. Pickups
+	 * never move, so all their update would do is animate them
+	 * 
+	 * @param pickup
+	 * @param grid
+	 * @param layer
+	 */
+	private <T extends AbstractGameObject> void createPickupEntity(T pickup, SpatialHashGrid<T> grid, int layer)
+	{
+		createEntity(pickup, new AnimationComponent(), new SleepComponent(), new BroadPhaseComponent(pickup, grid), new RenderComponent(layer), new CollisionComponent(true));
+	}
+	
+	/**
+	 * Splits a level of the given width into empty chunks and creates the collision
+	 * grids covering it
+	 * 
+	 * @param width
+	 */
+	private void initChunks(int width)
+	{
+		this.width = width;
+		chunks = new LevelChunk[Math.max(1, MathUtils.ceil(width/(float)Constants.LEVEL_CHUNK_WIDTH))];
+		for(int i = 0; i < chunks.length; i++)
+		{
+			chunks[i] = new LevelChunk(i);
+		}
+		lastRockChunk = null;
+		loadedFirst = 0;
+		loadedLast = -1;
+		
+		rockSweep = new SweepAndPrune<Rock>();
+		goldCoinGrid = new SpatialHashGrid<GoldCoin>(width, Constants.SPATIAL_GRID_CELL_WIDTH);
+		featherGrid = new SpatialHashGrid<Feather>(width, Constants.SPATIAL_GRID_CELL_WIDTH);
+	}
+	
+	/**
+	 * Returns the index of the chunk containing the level x coordinate, clamped to
+	 * the chunks of the level
+	 * 
+	 * @param x
+	 * @return
+	 */
+	private int chunkIndex(float x)
+	{
+		return MathUtils.clamp(MathUtils.floor(x/Constants.LEVEL_CHUNK_WIDTH), 0, chunks.length-1);
+	}
+	
+	/**
+	 * Returns the name of the compiled level belonging to the level image filename
+	 * 
+	 * @param filename
+	 * @return
+	 */
+	public static String getCompiledFilename(String filename)
+	{
+		int extension = filename.lastIndexOf('.');
+		if(extension < 0) extension = filename.length();
+		return filename.substring(0, extension)+COMPILED_LEVEL_EXTENSION;
+	}
+	
+	/**
+	 * This scans every pixel of the level image and places objects based upon their
+	 * color. Returns the width of the level
+	 * 
+	 * @param filename
+	 * @return
+	 */
+	private int loadPixmap(String filename)
+	{
 		//Load image file that represents level data
 		Pixmap pixmap = new Pixmap(Gdx.files.internal(filename));
+		initChunks(pixmap.getWidth());
 		//Scan pixels from top-left to bottom-right
 		int lastPixel = -1;
 		for(int pixelY = 0; pixelY < pixmap.getHeight(); pixelY++)
 		{
 			for(int pixelX = 0; pixelX < pixmap.getWidth(); pixelX++)
 			{
-				AbstractGameObject obj = null;
-				float offsetHeight = 0;
 				//Height grows from bottom to top
-				float baseHeight = pixmap.getHeight()-pixelY;
+				int baseHeight = pixmap.getHeight()-pixelY;
 				//Get color of current pixel as 32-bit RGBA value
 				int currentPixel = pixmap.getPixel(pixelX, pixelY);
 				//Find matching color value to identify block type at (x,y)
@@ -135,53 +430,36 @@ public class Level
 				{
 					if(lastPixel != currentPixel)
 					{
-						obj = new Rock();
-						float heightIncreaseFactor = 0.25f;
-						offsetHeight = -2.5f;
-						obj.position.set(pixelX, baseHeight*obj.dimension.y*heightIncreaseFactor+offsetHeight);
-						rocks.add((Rock)obj);
-						
+						spawnRock(pixelX, baseHeight, 1);
 					}
 					else
 					{
-						rocks.get(rocks.size-1).increaseLength(1);
+						lastRockChunk.extendLastRock(1);
 					}
 				}
 				
 				//Player spawnpoint
 				else if(BLOCK_TYPE.PLAYER_SPAWNPOINT.sameColor(currentPixel))
 				{
-					obj = new BunnyHead();
-					offsetHeight = -3.0f;
-					obj.position.set(pixelX, baseHeight*obj.dimension.y+offsetHeight);
-					bunnyHead = (BunnyHead)obj;
+					spawnObject(BLOCK_TYPE.PLAYER_SPAWNPOINT, pixelX, baseHeight);
 				}
 				
 				//Feather
 				else if(BLOCK_TYPE.ITEM_FEATHER.sameColor(currentPixel))
 				{
-					obj = new Feather();
-					offsetHeight = -1.5f;
-					obj.position.set(pixelX, baseHeight*obj.dimension.y+offsetHeight);
-					feathers.add((Feather)obj);
+					spawnObject(BLOCK_TYPE.ITEM_FEATHER, pixelX, baseHeight);
 				}
 				
 				//Gold Coin
 				else if(BLOCK_TYPE.ITEM_GOLD_COIN.sameColor(currentPixel))
 				{
-					obj = new GoldCoin();
-					offsetHeight = -1.5f;
-					obj.position.set(pixelX, baseHeight*obj.dimension.y+offsetHeight);
-					goldCoins.add((GoldCoin) obj);
+					spawnObject(BLOCK_TYPE.ITEM_GOLD_COIN, pixelX, baseHeight);
 				}
 				
 				//Goal
 				else if(BLOCK_TYPE.GOAL.sameColor(currentPixel))
 				{
-					obj = new Goal();
-					offsetHeight = -7.0f;
-					obj.position.set(pixelX, baseHeight+offsetHeight);
-					goal = (Goal)obj;
+					spawnObject(BLOCK_TYPE.GOAL, pixelX, baseHeight);
 				}
 				
 				//Unknown object/pixel color
@@ -196,91 +474,671 @@ public class Level
 				lastPixel = currentPixel;
 			}
 		}
-		
-		//Decoration
-		clouds = new Clouds(pixmap.getWidth());
-		clouds.position.set(0,2);
-		mountains = new Mountains(pixmap.getWidth());
-		mountains.position.set(-1,-1);
-		waterOverlay = new WaterOverlay(pixmap.getWidth());
-		waterOverlay.position.set(0, -3.75f);
+		int width = pixmap.getWidth();
 		
 		//Free memory
 		pixmap.dispose();
-		Gdx.app.debug(TAG, "Level '"+filename+"' loaded.");
+		return width;
 	}
 	
 	/**
-	 * This method tells every object in the level to run their update() function
+	 * This reads a level made by the level compiler. The rock spans and object table
+	 * are read in one pass without decoding or scanning the level image.
+	 * Returns the width of the level
 	 * 
-	 * @param deltaTime
+	 * @param file
+	 * @return
+	 * @throws IOException
 	 */
-	public void update(float deltaTime)
+	private int loadCompiled(FileHandle file) throws IOException
 	{
-		bunnyHead.update(deltaTime);
-		
+		ByteBuffer buffer = readCompiled(file);
+		try
+		{
+			//Header
+			if(buffer.getInt() != COMPILED_LEVEL_MAGIC)
+			{
+				throw new IOException("Not a compiled level");
+			}
+			int version = buffer.getInt();
+			if(version != COMPILED_LEVEL_VERSION)
+			{
+				throw new IOException("Unsupported compiled level version "+version);
+			}
+			int width = buffer.getInt();
+			int height = buffer.getInt();
+			initChunks(width);
+			
+			//Rock spans
+			int numRocks = buffer.getInt();
+			for(int i = 0; i < numRocks; i++)
+			{
+				int pixelX = buffer.getInt();
+				int pixelY = buffer.getShort();
+				int length = buffer.getInt();
+				spawnRock(pixelX, height-pixelY, length);
+			}
+			
+			//Object table
+			BLOCK_TYPE[] types = BLOCK_TYPE.values();
+			int numObjects = buffer.getInt();
+			for(int i = 0; i < numObjects; i++)
+			{
+				int type = buffer.get();
+				int pixelX = buffer.getInt();
+				int pixelY = buffer.getShort();
+				if(type < 0 || type >= types.length)
+				{
+					throw new IOException("Unknown object type "+type+" at x<"+pixelX+"> y<"+pixelY+">");
+				}
+				spawnObject(types[type], pixelX, height-pixelY);
+			}
+			return width;
+		}
+		catch(BufferUnderflowException e)
+		{
+			throw new IOException("Compiled level is truncated");
+		}
+	}
+	
+	/**
+	 * Returns the whole compiled level file in a buffer. Files that are on disk are read
+	 * through a FileChannel, others (e.g. inside an Android APK) are read as bytes
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	private ByteBuffer readCompiled(FileHandle file) throws IOException
+	{
+		if(file.type() != FileType.Classpath && file.file().exists())
+		{
+			FileInputStream input = new FileInputStream(file.file());
+			try
+			{
+				FileChannel channel = input.getChannel();
+				return channel.map(MapMode.READ_ONLY, 0, channel.size());
+			}
+			finally
+			{
+				input.close();
+			}
+		}
+		return ByteBuffer.wrap(file.readBytes());
+	}
+	
+	/**
+	 * Remembers a Rock of the given length whose left end is at the level position
+	 * (pixelX, baseHeight). It is created when its chunk is loaded
+	 * 
+	 * @param pixelX
+	 * @param baseHeight
+	 * @param length
+	 */
+	private void spawnRock(int pixelX, int baseHeight, int length)
+	{
+		lastRockChunk = chunks[chunkIndex(pixelX)];
+		lastRockChunk.addRock(pixelX, baseHeight, length);
+	}
+	
+	/**
+	 * Creates the player and goal at the level position (pixelX, baseHeight). Feathers and
+	 * gold coins are remembered and created when their chunk is loaded
+	 * 
+	 * @param type
+	 * @param pixelX
+	 * @param baseHeight
+	 */
+	private void spawnObject(BLOCK_TYPE type, int pixelX, int baseHeight)
+	{
+		AbstractGameObject obj = null;
+		float offsetHeight = 0;
+		switch(type)
+		{
+			//Player spawnpoint
+			case PLAYER_SPAWNPOINT:
+				obj = new BunnyHead();
+				offsetHeight = -3.0f;
+				obj.position.set(pixelX, baseHeight*obj.dimension.y+offsetHeight);
+				bunnyHead = (BunnyHead)obj;
+				spawnPosition.set(obj.position);
+				createEntity(obj, new UpdateComponent(), new RenderComponent(Constants.RENDER_LAYER_PLAYER));
+				engine.addEntity(obj.entity);
+				break;
+				
+			//Feather
+			case ITEM_FEATHER:
+				chunks[chunkIndex(pixelX)].addFeather(pixelX, baseHeight);
+				break;
+				
+			//Gold Coin
+			case ITEM_GOLD_COIN:
+				chunks[chunkIndex(pixelX)].addGoldCoin(pixelX, baseHeight);
+				break;
+				
+			//Goal
+			case GOAL:
+				obj = new Goal();
+				offsetHeight = -7.0f;
+				obj.position.set(pixelX, baseHeight+offsetHeight);
+				goal = (Goal)obj;
+				createEntity(obj, new RenderComponent(Constants.RENDER_LAYER_GOAL), new CollisionComponent(false));
+				engine.addEntity(obj.entity);
+				break;
+				
+			default:
+				Gdx.app.error(TAG, "Can't spawn "+type+" at x<"+pixelX+">");
+				break;
+		}
+	}
+	
+	/**
+	 * Creates the Box2D bodies for every loaded rock. Rocks loaded later get their
+	 * bodies from b2world as well
+	 * 
+	 * @param b2world
+	 */
+	public void initPhysics(World b2world)
+	{
+		this.b2world = b2world;
 		for(Rock rock: rocks)
 		{
-			rock.update(deltaTime);
+			createRockBody(rock);
+		}
+	}
+	
+	/**
+	 * Creates a kinematic body for rock matching its bounding box
+	 * 
+	 * @param rock
+	 */
+	private void createRockBody(Rock rock)
+	{
+		BodyDef bodyDef = new BodyDef();
+		bodyDef.type = BodyType.KinematicBody;
+		bodyDef.position.set(rock.position);
+		
+		Body body = b2world.createBody(bodyDef);
+		rock.body = body;
+		
+		PolygonShape polygonShape = new PolygonShape();
+		Vector2 origin = new Vector2(rock.bounds.width/2.0f, rock.bounds.height/2.0f);
+		polygonShape.setAsBox(rock.bounds.width/2.0f, rock.bounds.height/2.0f, origin, 0);
+		
+		FixtureDef fixtureDef = new FixtureDef();
+		fixtureDef.shape = polygonShape;
+		body.createFixture(fixtureDef);
+		polygonShape.dispose();
+	}
+	
+	/**
+	 * Loads every chunk within streaming distance of the level range minX to maxX and
+	 * unloads the chunks that have fallen further behind than that
+	 * 
+	 * @param minX
+	 * @param maxX
+	 */
+	public void updateStreaming(float minX, float maxX)
+	{
+		int first = chunkIndex(minX-Constants.LEVEL_STREAMING_DISTANCE-maxRockLength);
+		int last = chunkIndex(maxX+Constants.LEVEL_STREAMING_DISTANCE);
+		
+		//Keep one extra chunk on each side so moving back and forth on a chunk
+		//border doesn't load and unload the same chunk every frame
+		for(int i = loadedFirst; i <= loadedLast; i++)
+		{
+			if(chunks[i].loaded && (i < first-1 || i > last+1))
+			{
+				unloadChunk(chunks[i]);
+			}
+		}
+		for(int i = first; i <= last; i++)
+		{
+			if(!chunks[i].loaded)
+			{
+				loadChunk(chunks[i]);
+			}
 		}
 		
-		for(GoldCoin coin: goldCoins)
+		//Find the range of loaded chunks for the next update
+		int newFirst = Math.min(first, loadedFirst);
+		int newLast = Math.max(last, loadedLast);
+		while(newFirst < first && !chunks[newFirst].loaded) newFirst++;
+		while(newLast > last && !chunks[newLast].loaded) newLast--;
+		loadedFirst = newFirst;
+		loadedLast = newLast;
+	}
+	
+	/**
+	 * Creates the game objects and bodies of chunk and adds them to the level
+	 * 
+	 * @param chunk
+	 */
+	private void loadChunk(LevelChunk chunk)
+	{
+		//Rocks
+		for(int i = 0; i < chunk.rockLengths.size; i++)
 		{
-			coin.update(deltaTime);
+			Rock rock = new Rock();
+			placeRock(rock, chunk, i);
+			rock.setLength(chunk.rockLengths.get(i));
+			if(b2world != null) createRockBody(rock);
+			chunk.rocks.add(rock);
+			rocks.add(rock);
+			createEntity(rock, new UpdateComponent(), new ParallelComponent(), new KinematicComponent(), new SleepComponent(), new BroadPhaseComponent(rock, rockSweep), new RenderComponent(Constants.RENDER_LAYER_ROCKS), new CollisionComponent(false));
+			engine.addEntity(rock.entity);
 		}
 		
-		for(Feather feather: feathers)
+		//Gold coins
+		for(int i = 0; i < chunk.goldCoinsCollected.size; i++)
 		{
-			feather.update(deltaTime);
+			GoldCoin goldCoin = new GoldCoin();
+			float offsetHeight = -1.5f;
+			int pixelX = chunk.goldCoinPlacements.get(i*2);
+			int baseHeight = chunk.goldCoinPlacements.get(i*2+1);
+			goldCoin.position.set(pixelX, baseHeight*goldCoin.dimension.y+offsetHeight);
+			goldCoin.collected = chunk.goldCoinsCollected.get(i);
+			createPickupEntity(goldCoin, goldCoinGrid, Constants.RENDER_LAYER_GOLD_COINS);
+			chunk.goldCoins.add(goldCoin);
+			goldCoins.add(goldCoin, !goldCoin.collected);
+			if(!goldCoin.collected) activate(goldCoin);
 		}
 		
-		for(Carrot carrot: carrots)
+		//Feathers
+		for(int i = 0; i < chunk.feathersCollected.size; i++)
 		{
-			carrot.update(deltaTime);
+			Feather feather = new Feather();
+			float offsetHeight = -1.5f;
+			int pixelX = chunk.featherPlacements.get(i*2);
+			int baseHeight = chunk.featherPlacements.get(i*2+1);
+			feather.position.set(pixelX, baseHeight*feather.dimension.y+offsetHeight);
+			feather.collected = chunk.feathersCollected.get(i);
+			createPickupEntity(feather, featherGrid, Constants.RENDER_LAYER_FEATHERS);
+			chunk.feathers.add(feather);
+			feathers.add(feather, !feather.collected);
+			if(!feather.collected) activate(feather);
 		}
 		
-		clouds.update(deltaTime);
+		//Nothing has moved yet, so there is nothing to interpolate from
+		for(Rock rock: chunk.rocks)
+		{
+			rock.savePreviousState();
+		}
+		for(GoldCoin goldCoin: chunk.goldCoins)
+		{
+			goldCoin.savePreviousState();
+		}
+		for(Feather feather: chunk.feathers)
+		{
+			feather.savePreviousState();
+		}
+		chunk.loaded = true;
 	}
 	
 	/**
-	 * Takes all sprites in the batch and renders them
+	 * Moves rock to the start position of the index-th rock of chunk
 	 * 
-	 * @param batch
+	 * @param rock
+	 * @param chunk
+	 * @param index
 	 */
-	public void render(SpriteBatch batch)
+	private void placeRock(Rock rock, LevelChunk chunk, int index)
 	{
-		//Draw Mountains
-		mountains.render(batch);
+		float heightIncreaseFactor = 0.25f;
+		float offsetHeight = -2.5f;
+		int pixelX = chunk.rockPlacements.get(index*2);
+		int baseHeight = chunk.rockPlacements.get(index*2+1);
+		rock.setFloatOrigin(pixelX, baseHeight*rock.dimension.y*heightIncreaseFactor+offsetHeight);
+	}
+	
+	/**
+	 * Puts the level back into the state it was loaded in without recreating it. Rocks
+	 * and their bodies are moved back to where they started and every coin and feather
+	 * can be collected again. Carrots must be removed beforehand
+	 */
+	public void reset()
+	{
+		//Player character
+		bunnyHead.init();
+		bunnyHead.position.set(spawnPosition);
+		bunnyHead.velocity.set(0, 0);
+		bunnyHead.rotation = 0;
 		
-		//Draw Goal
-		goal.render(batch);
+		for(LevelChunk chunk: chunks)
+		{
+			chunk.resetCollected();
+			if(!chunk.loaded) continue;
+			
+			//Rocks
+			for(int i = 0; i < chunk.rocks.size; i++)
+			{
+				Rock rock = chunk.rocks.get(i);
+				placeRock(rock, chunk, i);
+				rock.resetFloating();
+				//A sleeping rock starts catching up from here
+				rock.asleepSince = time;
+				if(rock.body != null)
+				{
+					rock.body.setTransform(rock.position, 0);
+					rock.body.setLinearVelocity(0, 0);
+				}
+			}
+		}
 		
-		//Draw Rocks
-		for(Rock rock: rocks)
+		//Pickups
+		resetPickups();
+		
+		//Nothing has moved yet, so there is nothing to interpolate from
+		savePreviousState();
+		Gdx.app.debug(TAG, "Level reset.");
+	}
+	
+	/**
+	 * Makes every collected coin and feather of the loaded chunks collectable again
+	 */
+	public void resetPickups()
+	{
+		for(int i = goldCoins.size; i < goldCoins.getTotalSize(); i++)
 		{
-			rock.render(batch);			
+			GoldCoin goldCoin = goldCoins.get(i);
+			goldCoin.collected = false;
+			activate(goldCoin);
 		}
+		goldCoins.activateAll();
 		
-		//Draw coins
-		for(GoldCoin coin: goldCoins)
+		for(int i = feathers.size; i < feathers.getTotalSize(); i++)
 		{
-			coin.render(batch);
+			Feather feather = feathers.get(i);
+			feather.collected = false;
+			activate(feather);
 		}
+		feathers.activateAll();
+	}
+	
+	/**
+	 * Puts the entity of pickup into the engine, which also puts pickup into its grid
+	 * 
+	 * @param pickup
+	 */
+	private void activate(AbstractGameObject pickup)
+	{
+		engine.addEntity(pickup.entity);
+	}
+	
+	/**
+	 * Takes the entity of pickup out of the engine and pickup out of its grid, asleep
+	 * or not
+	 * 
+	 * @param pickup
+	 */
+	private void deactivate(AbstractGameObject pickup)
+	{
+		engine.removeEntity(pickup.entity);
+		pickup.asleep = false;
+	}
+	
+	/**
+	 * Puts carrot into play. Carrots follow their Box2D body
+	 * 
+	 * @param carrot
+	 */
+	public void addCarrot(Carrot carrot)
+	{
+		if(carrot.entity == null) createEntity(carrot, new BodyComponent(), new AnimationComponent(), new RenderComponent(Constants.RENDER_LAYER_CARROTS));
+		carrots.add(carrot);
+		engine.addEntity(carrot.entity);
+	}
+	
+	/**
+	 * Takes every carrot out of play and returns it to pool
+	 * 
+	 * @param pool
+	 */
+	public void freeCarrots(CarrotPool pool)
+	{
+		for(Carrot carrot: carrots)
+		{
+			engine.removeEntity(carrot.entity);
+		}
+		pool.freeAll(carrots);
+	}
+	
+	/**
+	 * Marks goldCoin as collected and takes it out of the active coins, so it is no
+	 * longer updated, drawn or tested for collisions
+	 * 
+	 * @param goldCoin
+	 */
+	public void collect(GoldCoin goldCoin)
+	{
+		goldCoin.collected = true;
+		goldCoins.deactivate(goldCoin);
+		deactivate(goldCoin);
+	}
+	
+	/**
+	 * Marks feather as collected and takes it out of the active feathers, so it is no
+	 * longer updated, drawn or tested for collisions
+	 * 
+	 * @param feather
+	 */
+	public void collect(Feather feather)
+	{
+		feather.collected = true;
+		feathers.deactivate(feather);
+		deactivate(feather);
+	}
+	
+	/**
+	 * Removes the game objects of chunk from the level and destroys their bodies.
+	 * Collected coins and feathers stay collected when the chunk is loaded again
+	 * 
+	 * @param chunk
+	 */
+	private void unloadChunk(LevelChunk chunk)
+	{
+		for(Rock rock: chunk.rocks)
+		{
+			engine.removeEntity(rock.entity);
+			if(rock.body != null) b2world.destroyBody(rock.body);
+			rock.body = null;
+		}
+		rocks.removeAll(chunk.rocks, true);
+		chunk.rocks.clear();
 		
-		//Draw Feathers
-		for(Feather feather: feathers)
+		for(int i = 0; i < chunk.goldCoins.size; i++)
 		{
-			feather.render(batch);
+			GoldCoin goldCoin = chunk.goldCoins.get(i);
+			chunk.goldCoinsCollected.set(i, goldCoin.collected);
+			if(!goldCoin.collected) deactivate(goldCoin);
+			goldCoins.remove(goldCoin);
 		}
+		chunk.goldCoins.clear();
 		
-		//Draw Carrots
-		for(Carrot carrot: carrots)
+		for(int i = 0; i < chunk.feathers.size; i++)
+		{
+			Feather feather = chunk.feathers.get(i);
+			chunk.feathersCollected.set(i, feather.collected);
+			if(!feather.collected) deactivate(feather);
+			feathers.remove(feather);
+		}
+		chunk.feathers.clear();
+		chunk.loaded = false;
+	}
+	
+	/**
+	 * Moves the decoration along with the camera so it always covers the screen
+	 * 
+	 * @param camPosition
+	 */
+	public void updateScrollPosition(Vector2 camPosition)
+	{
+		mountains.updateScrollPosition(camPosition);
+		clouds.updateScrollPosition(camPosition);
+		waterOverlay.updateScrollPosition(camPosition);
+	}
+	
+	/**
+	 * Puts the rocks, coins and feathers further than LEVEL_ACTIVITY_DISTANCE from the
+	 * level range minX to maxX to sleep and wakes the sleeping ones inside it. Only the
+	 * awake objects and the ones the broad phases find in the area are visited, so the
+	 * cost depends on the size of the area and not on how much of the level is loaded
+	 * 
+	 * @param minX
+	 * @param maxX
+	 */
+	public void updateActivity(float minX, float maxX)
+	{
+		//Both broad phases only look at x
+		activeArea.set(minX-Constants.LEVEL_ACTIVITY_DISTANCE, 0, maxX-minX+2*Constants.LEVEL_ACTIVITY_DISTANCE, 0);
+		
+		//Falling asleep swaps an object with the last awake one, which was already visited
+		PartitionedArray<AbstractGameObject> sleepables = sleepableObjects.getObjects();
+		for(int i = sleepables.size-1; i >= 0; i--)
+		{
+			AbstractGameObject obj = sleepables.get(i);
+			if(!inActiveArea(obj)) sleep(obj);
+		}
+		
+		Array<BroadPhase<AbstractGameObject>> broadPhases = broadPhaseIndex.getBroadPhases();
+		for(int i = 0; i < broadPhases.size; i++)
+		{
+			for(AbstractGameObject obj: broadPhases.get(i).query(activeArea, nearbyObjects))
+			{
+				if(obj.asleep && inActiveArea(obj)) wake(obj);
+			}
+		}
+	}
+	
+	/**
+	 * Returns true if the x-extent of obj overlaps the area around the camera and player
+	 * that is kept awake
+	 * 
+	 * @param obj
+	 * @return
+	 */
+	private boolean inActiveArea(AbstractGameObject obj)
+	{
+		float x = obj.position.x+obj.bounds.x;
+		return x <= activeArea.x+activeArea.width && x+obj.bounds.width >= activeArea.x;
+	}
+	
+	/**
+	 * Tells the systems to skip obj until it is woken up again. Its entity stays in
+	 * the engine
+	 * 
+	 * @param obj
+	 */
+	private void sleep(AbstractGameObject obj)
+	{
+		obj.asleep = true;
+		obj.asleepSince = time;
+		for(int i = 0; i < sleepListeners.size; i++)
+		{
+			sleepListeners.get(i).objectFellAsleep(obj);
+		}
+		obj.sleep();
+	}
+	
+	/**
+	 * Lets obj catch up on the time it slept and tells the systems to update it again
+	 * 
+	 * @param obj
+	 */
+	private void wake(AbstractGameObject obj)
+	{
+		obj.asleep = false;
+		obj.wake(time-obj.asleepSince);
+		for(int i = 0; i < sleepListeners.size; i++)
+		{
+			sleepListeners.get(i).objectWokeUp(obj);
+		}
+		//It jumped to where it would be now, so there is nothing to interpolate from
+		obj.savePreviousState();
+	}
+	
+	/**
+	 * Runs the engine's systems over every object in play, then moves the clouds.
+	 * Systems split over threads have finished when this returns, so the collision
+	 * test and the Box2D step always see a complete update
+	 * 
+	 * @param deltaTime
+	 */
+	public void update(float deltaTime)
+	{
+		time += deltaTime;
+		engine.update(deltaTime);
+		clouds.update(deltaTime);
+	}
+	
+	/**
+	 * Stores the current state of every awake object before a fixed simulation step
+	 */
+	public void savePreviousState()
+	{
+		PartitionedArray<AbstractGameObject> objects = interpolatedObjects.getObjects();
+		for(int i = 0; i < objects.size; i++)
+		{
+			objects.get(i).savePreviousState();
+		}
+		clouds.savePreviousState();
+	}
+	
+	/**
+	 * Places every awake object between its previous and current state for rendering
+	 * 
+	 * @param alpha
+	 */
+	public void interpolate(float alpha)
+	{
+		PartitionedArray<AbstractGameObject> objects = interpolatedObjects.getObjects();
+		for(int i = 0; i < objects.size; i++)
+		{
+			objects.get(i).interpolate(alpha);
+		}
+		clouds.interpolate(alpha);
+	}
+	
+	/**
+	 * Restores the simulated state of every object moved by interpolate(alpha)
+	 */
+	public void endInterpolation()
+	{
+		PartitionedArray<AbstractGameObject> objects = interpolatedObjects.getObjects();
+		for(int i = 0; i < objects.size; i++)
+		{
+			objects.get(i).endInterpolation();
+		}
+		clouds.endInterpolation();
+	}
+	
+	/**
+	 * Takes all sprites in the batch and renders them. The RenderSystem skips objects
+	 * outside of view and only visits the objects of the broad phases near it. If
+	 * staticGeometry is not null, the mountains are drawn from it instead of the batch
+	 * 
+	 * @param batch
+	 * @param view
+	 * @param staticGeometry
+	 */
+	public void render(SpriteBatch batch, Rectangle view, StaticGeometryCache staticGeometry)
+	{
+		//Draw Mountains
+		if(staticGeometry != null)
+		{
+			batch.end();
+			staticGeometry.renderMountains(mountains);
+			batch.begin();
+		}
+		else
 		{
-			carrot.render(batch);
+			mountains.render(batch);
 		}
 		
-		//Draw Player
-		bunnyHead.render(batch);
+		//Draw the objects in view
+		renderSystem.render(batch, view);
+		numVisible = renderSystem.numVisible;
+		numCulled = renderSystem.numCulled;
 		
 		//Draw Water Overlay
 		waterOverlay.render(batch);
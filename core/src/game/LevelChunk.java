@@ -0,0 +1,127 @@
+package game;
+import java.util.Arrays;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.IntArray;
+import objects.Feather;
+import objects.GoldCoin;
+import objects.Rock;
+
+/**
+ * This class represents one fixed-width slice of a level. It always remembers where
+ * its rocks, coins and feathers go, but the game objects themselves only exist
+ * while Level has the chunk loaded
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class LevelChunk
+{
+	public final int index;
+	public boolean loaded;
+	//Where objects go, stored as level column and base height pairs
+	IntArray rockPlacements;
+	IntArray rockLengths;
+	IntArray goldCoinPlacements;
+	BooleanArray goldCoinsCollected;
+	IntArray featherPlacements;
+	BooleanArray feathersCollected;
+	//Game objects while loaded
+	public final Array<Rock> rocks;
+	public final Array<GoldCoin> goldCoins;
+	public final Array<Feather> feathers;
+
+	/**
+	 * Creates an empty chunk
+	 *
+	 * @param index
+	 */
+	public LevelChunk(int index)
+	{
+		this.index = index;
+		loaded = false;
+		rockPlacements = new IntArray();
+		rockLengths = new IntArray();
+		goldCoinPlacements = new IntArray();
+		goldCoinsCollected = new BooleanArray();
+		featherPlacements = new IntArray();
+		feathersCollected = new BooleanArray();
+		rocks = new Array<Rock>();
+		goldCoins = new Array<GoldCoin>();
+		feathers = new Array<Feather>();
+	}
+
+	/**
+	 * Remembers a rock starting at column pixelX
+	 *
+	 * @param pixelX
+	 * @param baseHeight
+	 * @param length
+	 */
+	public void addRock(int pixelX, int baseHeight, int length)
+	{
+		rockPlacements.add(pixelX);
+		rockPlacements.add(baseHeight);
+		rockLengths.add(length);
+	}
+
+	/**
+	 * Makes the last rock added to this chunk longer by amount
+	 *
+	 * @param amount
+	 */
+	public void extendLastRock(int amount)
+	{
+		rockLengths.incr(rockLengths.size-1, amount);
+	}
+
+	/**
+	 * Remembers a gold coin at column pixelX
+	 *
+	 * @param pixelX
+	 * @param baseHeight
+	 */
+	public void addGoldCoin(int pixelX, int baseHeight)
+	{
+		goldCoinPlacements.add(pixelX);
+		goldCoinPlacements.add(baseHeight);
+		goldCoinsCollected.add(false);
+	}
+
+	/**
+	 * Remembers a feather at column pixelX
+	 *
+	 * @param pixelX
+	 * @param baseHeight
+	 */
+	public void addFeather(int pixelX, int baseHeight)
+	{
+		featherPlacements.add(pixelX);
+		featherPlacements.add(baseHeight);
+		feathersCollected.add(false);
+	}
+
+	/**
+	 * Marks every coin and feather of this chunk as not collected
+	 */
+	public void resetCollected()
+	{
+		Arrays.fill(goldCoinsCollected.items, 0, goldCoinsCollected.size, false);
+		Arrays.fill(feathersCollected.items, 0, feathersCollected.size, false);
+	}
+	
+	/**
+	 * Returns the length of the longest rock starting in this chunk
+	 *
+	 * @return
+	 */
+	public int getMaxRockLength()
+	{
+		int max = 0;
+		for(int i = 0; i < rockLengths.size; i++)
+		{
+			max = Math.max(max, rockLengths.get(i));
+		}
+		return max;
+	}
+}
@@ -0,0 +1,113 @@
+package game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import decoration.Mountains;
+
+/**
+ * This class uploads the sprites of the mountain layers to the GPU once per level
+ * instead of rebuilding them in the SpriteBatch every frame. The mountains scroll
+ * with parallax, so each layer is cached relative to the camera and moved into place
+ * with the cache's transform matrix when it is drawn. Rocks move every step and stay
+ * on the SpriteBatch, where they are drawn in the same batch as the other objects
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class StaticGeometryCache implements Disposable
+{
+	public static final String TAG = StaticGeometryCache.class.getName();
+
+	private SpriteCache cache;
+	private Level level;
+	private int[] mountainLayerIds;
+	private Matrix4 layerTransform;
+
+	/**
+	 * build(Level) has to be called before rendering
+	 */
+	public StaticGeometryCache()
+	{
+		layerTransform = new Matrix4();
+	}
+
+	/**
+	 * Returns true if the cache holds the geometry of level
+	 *
+	 * @param level
+	 * @return
+	 */
+	public boolean isBuiltFor(Level level)
+	{
+		return this.level == level;
+	}
+
+	/**
+	 * Uploads every mountain layer of level
+	 *
+	 * @param level
+	 */
+	public void build(Level level)
+	{
+		this.level = level;
+		Mountains mountains = level.mountains;
+
+		//Size the cache to exactly what is added below
+		int numSprites = mountains.getLayerCount()*mountains.getCachedSpriteCount();
+		if(cache != null) cache.dispose();
+		cache = new SpriteCache(Math.max(1, numSprites), false);
+
+		mountainLayerIds = new int[mountains.getLayerCount()];
+		for(int layer = 0; layer < mountainLayerIds.length; layer++)
+		{
+			cache.beginCache();
+			mountains.cacheLayer(cache, layer);
+			mountainLayerIds[layer] = cache.endCache();
+		}
+		Gdx.app.debug(TAG, "Cached "+numSprites+" sprites for "+mountainLayerIds.length+" mountain layers");
+	}
+
+	/**
+	 * Sets the projection used for every layer drawn afterwards
+	 *
+	 * @param projection
+	 */
+	public void setProjectionMatrix(Matrix4 projection)
+	{
+		if(cache != null) cache.setProjectionMatrix(projection);
+	}
+
+	/**
+	 * Draws every mountain layer at mountains' current scroll position, one draw
+	 * call per layer. Must not be called between SpriteBatch.begin() and end()
+	 *
+	 * @param mountains
+	 */
+	public void renderMountains(Mountains mountains)
+	{
+		//Same blending the SpriteBatch uses
+		Gdx.gl.glEnable(GL20.GL_BLEND);
+		Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+		//The transform can only be changed outside of begin() and end()
+		for(int layer = 0; layer < mountainLayerIds.length; layer++)
+		{
+			cache.setTransformMatrix(layerTransform.setToTranslation(mountains.getLayerOffsetX(layer), 0, 0));
+			cache.begin();
+			cache.draw(mountainLayerIds[layer]);
+			cache.end();
+		}
+		Gdx.gl.glDisable(GL20.GL_BLEND);
+	}
+
+	/**
+	 * Frees the cached geometry
+	 */
+	@Override
+	public void dispose()
+	{
+		if(cache != null) cache.dispose();
+	}
+}
@@ -7,23 +7,26 @@ import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.physics.box2d.BodyDef;
-import com.badlogic.gdx.physics.box2d.FixtureDef;
-import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Disposable;
-import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
 import gui.MenuScreen;
+import objects.AbstractGameObject;
 import objects.BunnyHead;
-import objects.Carrot;
 import objects.Feather;
+import objects.Goal;
 import objects.GoldCoin;
 import objects.Rock;
 import objects.BunnyHead.JUMP_STATE;
+import systems.CollisionListener;
 import utilities.AudioManager;
 import utilities.CameraHelper;
 import utilities.Constants;
+import utilities.FrameProfiler;
+import utilities.FrameProfiler.Phase;
+import utilities.GameRandom;
+import utilities.GamePreferences;
+import utilities.SettingsListener;
 
 /**
  * This class is responsible for updating information about the game objects, as well as the camera,
@@ -32,7 +35,7 @@ import utilities.Constants;
  * @author Raistlin Hess
  *
  */
-public class WorldController extends InputAdapter implements Disposable
+public class WorldController extends InputAdapter implements Disposable, SettingsListener, CollisionListener
 {
 	private static final String TAG = WorldController.class.getName();
 	private Game game;
@@ -40,6 +43,9 @@ public class WorldController extends InputAdapter implements Disposable
 	//Rectangles for collision detection
 	private Rectangle r1 = new Rectangle();
 	private Rectangle r2 = new Rectangle();
+	//Reusable results for the rock sweep query
+	private Array<Rock> nearbyRocks = new Array<Rock>();
+	public boolean collisionBroadPhase = true;	//false tests every object, for comparison
 	private boolean goalReached;
 	public CameraHelper cameraHelper;
 	public Level level;
@@ -48,11 +54,32 @@ public class WorldController extends InputAdapter implements Disposable
 	public float livesVisual;
 	public float scoreVisual;
 	public World b2world;
+	private CarrotPool carrotPool;
+	private Vector2 carrotSpawnPosition = new Vector2();
+	//Fixed timestep
+	public boolean fixedTimestep;
+	private float tickDuration;
+	private int maxSubsteps;
+	private float accumulator;
+	private float interpolationAlpha;
 	
 	public WorldController(Game game)
 	{
 		this.game = game;
+		carrotPool = new CarrotPool(Constants.CARROTS_POOL_SIZE);
 		init();
+		GamePreferences.instance.addListener(this);
+	}
+	
+	/**
+	 * Passes a new skin on to the player
+	 * 
+	 * @param prefs
+	 */
+	@Override
+	public void onSettingsUpdated(GamePreferences prefs)
+	{
+		if(level != null) level.bunnyHead.setSkin(prefs.getCharacterSkin());
 	}
 	
 	/**
@@ -66,20 +93,35 @@ public class WorldController extends InputAdapter implements Disposable
 		lives = Constants.LIVES_START;
 		livesVisual = lives;
 		timeLeftGameOverDelay = 0;
+		fixedTimestep = Constants.FIXED_TIMESTEP;
+		setTickRate(Constants.SIMULATION_TICK_RATE);
+		setMaxSubsteps(Constants.SIMULATION_MAX_SUBSTEPS);
+		accumulator = 0;
+		interpolationAlpha = 1;
 		initLevel();
 	}
 	
 	/**
-	 * Sets the score to 0 and loads the first level
+	 * Sets the score to 0 and loads the first level. If the level was already loaded
+	 * it is reset instead, keeping the Box2D world and the rocks' bodies
 	 */
 	public void initLevel()
 	{
 		score = 0;
 		scoreVisual = score;
 		goalReached = false;
-		level = new Level(Constants.LEVEL_01);
+		if(level == null)
+		{
+			level = new Level(Constants.LEVEL_01);
+			initPhysics();
+		}
+		else
+		{
+			level.freeCarrots(carrotPool);
+			level.reset();
+		}
 		cameraHelper.setTarget(level.bunnyHead);
-		initPhysics();
+		updateStreaming();
 	}
 	
 	/**
@@ -91,26 +133,26 @@ public class WorldController extends InputAdapter implements Disposable
 		b2world = new World(new Vector2(0, -9.81f), true);
 		
 		//Rocks
-		Vector2 origin = new Vector2();
-		for(Rock rock: level.rocks)
-		{
-			BodyDef bodyDef = new BodyDef();
-			bodyDef.type = BodyType.KinematicBody;
-			bodyDef.position.set(rock.position);
-			
-			Body body = b2world.createBody(bodyDef);
-			rock.body = body;
-			
-			PolygonShape polygonShape = new PolygonShape();
-			origin.x = rock.bounds.width/2.0f;
-			origin.y = rock.bounds.height/2.0f;
-			polygonShape.setAsBox(rock.bounds.width/2.0f, rock.bounds.height/2.0f, origin, 0);
-			
-			FixtureDef fixtureDef = new FixtureDef();
-			fixtureDef.shape = polygonShape;
-			body.createFixture(fixtureDef);
-			polygonShape.dispose();
-		}
+		level.initPhysics(b2world);
+		
+		//Carrots
+		carrotPool.init(b2world);
+	}
+	
+	/**
+	 * Loads the chunks of the level around both the camera and the player and keeps
+	 * the objects in view of either awake. The camera can still be far from the player
+	 * right after losing a life
+	 */
+	private void updateStreaming()
+	{
+		float cameraX = cameraHelper.getPosition().x;
+		float playerX = level.bunnyHead.position.x;
+		float minX = Math.min(cameraX, playerX);
+		float maxX = Math.max(cameraX, playerX);
+		level.updateStreaming(minX, maxX);
+		float halfViewWidth = Constants.VIEWPORT_WIDTH*cameraHelper.getZoom()/2;
+		level.updateActivity(minX-halfViewWidth, maxX+halfViewWidth);
 	}
 	
 	/**
@@ -278,7 +320,7 @@ public class WorldController extends InputAdapter implements Disposable
 		BunnyHead bunnyHead = level.bunnyHead;
 		float heightDifference = Math.abs(bunnyHead.position.y-(rock.position.y+rock.bounds.height));
 	
-		if(heightDifference > 0.25f)
+		if(heightDifference > Constants.ROCK_STEP_HEIGHT)
 		{
 			boolean hitRightEdge = bunnyHead.position.x > (rock.position.x+rock.bounds.width/2.0f);
 			if(hitRightEdge)
@@ -315,7 +357,7 @@ public class WorldController extends InputAdapter implements Disposable
 	 */
 	private void onCollisionBunnyWithGoldCoin(GoldCoin goldCoin)
 	{
-		goldCoin.collected = true;
+		level.collect(goldCoin);
 		AudioManager.instance.play(Assets.instance.sounds.pickupCoin);
 		score += goldCoin.getScore();
 		Gdx.app.log(TAG, "Gold coin collected");
@@ -328,7 +370,7 @@ public class WorldController extends InputAdapter implements Disposable
 	 */
 	private void onCollisionBunnyWithFeather(Feather feather)
 	{
-		feather.collected = true;
+		level.collect(feather);
 		AudioManager.instance.play(Assets.instance.sounds.pickupFeather);
 		score += feather.getScore();
 		level.bunnyHead.setFeatherPowerup(true);
@@ -339,114 +381,180 @@ public class WorldController extends InputAdapter implements Disposable
 	 */
 	private void onCollisionBunnyWithGoal()
 	{
+		if(goalReached) return;
 		goalReached = true;
 		timeLeftGameOverDelay = Constants.TIME_DELAY_GAME_FINISHED;
 		
-		Vector2 centerPosBunnyHead = new Vector2(level.bunnyHead.position);
-		centerPosBunnyHead.x += level.bunnyHead.bounds.width;
-		spawnCarrots(centerPosBunnyHead, Constants.CARROTS_SPAWN_MAX, Constants.CARROTS_SPAWN_RADIUS);
+		carrotSpawnPosition.set(level.bunnyHead.position);
+		carrotSpawnPosition.x += level.bunnyHead.bounds.width;
+		spawnCarrots(carrotSpawnPosition, Constants.CARROTS_SPAWN_MAX, Constants.CARROTS_SPAWN_RADIUS);
 	}
 	
 	/**
-	 * Create several carrots based on Constants' value and drop them from
-	 * the sky
+	 * Take several carrots from the carrot pool based on Constants' value and drop
+	 * them from the sky
 	 */
 	private void spawnCarrots(Vector2 pos, int numCarrots, float radius)
 	{
-		float carrotShapeScale = 0.5f;
-		
-		//Create carrots with box2d body and fixture
 		for(int i = 0; i < numCarrots; i++)
 		{
-			Carrot carrot = new Carrot();
-			
-			//Calculate random spawn position, rotation, and scale
-			float x = MathUtils.random(-radius, radius);
-			float y = MathUtils.random(5.0f, 15.0f);
-			float rotation = MathUtils.random(0.0f, 360.0f)*MathUtils.degreesToRadians;
-			float carrotScale = MathUtils.random(0.5f, 1.5f);
+			//Calculate random spawn position and rotation
+			float x = GameRandom.instance.random(-radius, radius);
+			float y = GameRandom.instance.random(5.0f, 15.0f);
+			float rotation = GameRandom.instance.random(0.0f, 360.0f)*MathUtils.degreesToRadians;
 			
-			//Create box2d body for carrot with start position and
-			//angle of rotation
-			BodyDef bodyDef = new BodyDef();
-			bodyDef.position.set(pos);
-			bodyDef.position.add(x,y);
-			bodyDef.angle = rotation;
-			
-			Body body = b2world.createBody(bodyDef);
-			body.setType(BodyType.DynamicBody);
-			carrot.body = body;
+			//Place a pooled carrot's body at the start position and
+			//angle of rotation, then add it to list for updating/rendering
+			level.addCarrot(carrotPool.obtain(pos.x+x, pos.y+y, rotation));
+		}
+		Gdx.app.debug(TAG, "Carrots spawned. Pool hits: "+carrotPool.hits+" misses: "+carrotPool.misses);
+	}
+	
+	/**
+	 * Moves the bunnyHead back to where it first touched a rock on its way from
+	 * lastPosition to position, so a long step can't carry it through a rock. Landing
+	 * on top and running into a side are handled here. Rocks it already overlapped at
+	 * the start, hits from below and edges low enough to walk onto are left to the
+	 * overlap test in testCollisions()
+	 */
+	private void sweepBunnyHeadAgainstRocks()
+	{
+		BunnyHead bunnyHead = level.bunnyHead;
+		float width = bunnyHead.bounds.width;
+		float height = bunnyHead.bounds.height;
+		float startX = bunnyHead.lastPosition.x;
+		float startY = bunnyHead.lastPosition.y;
+		float dx = bunnyHead.position.x-startX;
+		float dy = bunnyHead.position.y-startY;
+		if(dx == 0 && dy == 0) return;
+		
+		//Everything the bunnyHead passed over
+		r1.set(Math.min(startX, bunnyHead.position.x), Math.min(startY, bunnyHead.position.y), width+Math.abs(dx), height+Math.abs(dy));
+		
+		Rock hitRock = null;
+		float hitTime = 0;
+		boolean hitSide = false;
+		for(Rock rock: level.rockSweep.query(r1, nearbyRocks))
+		{
+			r2.set(rock.position.x, rock.position.y, rock.bounds.width, rock.bounds.height);
 			
-			//Create rectangular shape for carrot to allow collisions
-			//with other objects
-			PolygonShape polygonShape = new PolygonShape();
-			float halfWidth = carrot.bounds.width/2.0f*carrotScale;
-			float halfHeight = carrot.bounds.height/2.0f*carrotScale;
-			polygonShape.setAsBox(halfWidth*carrotShapeScale, halfHeight*carrotShapeScale);
+			//Fractions of the step at which the boxes start and stop overlapping on each axis
+			float entryX, exitX, entryY, exitY;
+			if(dx > 0)
+			{
+				entryX = (r2.x-(startX+width))/dx;
+				exitX = (r2.x+r2.width-startX)/dx;
+			}
+			else if(dx < 0)
+			{
+				entryX = (r2.x+r2.width-startX)/dx;
+				exitX = (r2.x-(startX+width))/dx;
+			}
+			else
+			{
+				if(startX+width <= r2.x || startX >= r2.x+r2.width) continue;
+				entryX = Float.NEGATIVE_INFINITY;
+				exitX = Float.POSITIVE_INFINITY;
+			}
+			if(dy > 0)
+			{
+				entryY = (r2.y-(startY+height))/dy;
+				exitY = (r2.y+r2.height-startY)/dy;
+			}
+			else if(dy < 0)
+			{
+				entryY = (r2.y+r2.height-startY)/dy;
+				exitY = (r2.y-(startY+height))/dy;
+			}
+			else
+			{
+				if(startY+height <= r2.y || startY >= r2.y+r2.height) continue;
+				entryY = Float.NEGATIVE_INFINITY;
+				exitY = Float.POSITIVE_INFINITY;
+			}
 			
-			//Set physics attributes
-			FixtureDef fixtureDef = new FixtureDef();
-			fixtureDef.shape = polygonShape;
-			fixtureDef.density = 50;
-			fixtureDef.restitution = 0.5f;
-			fixtureDef.friction = 0.5f;
-			body.createFixture(fixtureDef);
-			polygonShape.dispose();
+			float entry = Math.max(entryX, entryY);
+			float exit = Math.min(exitX, exitY);
+			if(entry < 0)
+			{
+				//A rock floating up can reach a little into the bunnyHead before it moves
+				boolean sunkIntoTop = entryY >= entryX && dy < 0 && r2.y+r2.height-startY <= Constants.ROCK_STEP_HEIGHT;
+				if(!sunkIntoTop) continue;
+				entry = 0;
+			}
+			if(entry > 1 || entry >= exit) continue;
+			if(hitRock != null && entry >= hitTime) continue;
 			
-			//Finally, add new carrot to list for updating/rendering
-			level.carrots.add(carrot);
+			boolean side = entryX > entryY;
+			if(side)
+			{
+				//Low enough to walk onto
+				float bottom = startY+dy*entry;
+				if(r2.y+r2.height-bottom <= Constants.ROCK_STEP_HEIGHT) continue;
+			}
+			else if(dy > 0)
+			{
+				//Hit from below
+				continue;
+			}
+			hitRock = rock;
+			hitTime = entry;
+			hitSide = side;
+		}
+		if(hitRock == null) return;
+		
+		if(hitSide)
+		{
+			bunnyHead.position.x = dx > 0 ? hitRock.position.x-width : hitRock.position.x+hitRock.bounds.width;
+		}
+		else
+		{
+			bunnyHead.position.y = hitRock.position.y+hitRock.bounds.height;
+			if(bunnyHead.jumpState == JUMP_STATE.FALLING || bunnyHead.jumpState == JUMP_STATE.JUMP_FALLING)
+			{
+				bunnyHead.jumpState = JUMP_STATE.GROUNDED;
+			}
 		}
 	}
 	
 	/**
 	 * This method tests to see if the bunnyHead collides with any of the other
-	 * collidable objects in the level
+	 * collidable objects in the level. Rocks are swept along the bunnyHead's whole
+	 * step first, then the level's CollisionSystem finds the objects overlapping the
+	 * bunnyHead and calls onCollision for each. Public so it can be benchmarked on its own
 	 */
-	private void testCollisions()
+	public void testCollisions()
 	{
+		sweepBunnyHeadAgainstRocks();
 		r1.set(level.bunnyHead.position.x, level.bunnyHead.position.y, level.bunnyHead.bounds.width, level.bunnyHead.bounds.height);
-		
-		//Test collision: Bunnyhead with Rocks
-		for(Rock rock: level.rocks)
+		level.collisionSystem.testCollisions(r1, collisionBroadPhase, this);
+	}
+	
+	/**
+	 * Hands obj, which the bunnyHead touches, to the handler for its type.
+	 * IMPORTANT: every rock touched is handled for valid edge testing on rocks
+	 * 
+	 * @param obj
+	 */
+	@Override
+	public void onCollision(AbstractGameObject obj)
+	{
+		if(obj instanceof Rock)
 		{
-			r2.set(rock.position.x, rock.position.y, rock.bounds.width, rock.bounds.height);
-			if(!r1.overlaps(r2)) continue;
-			onCollisionBunnyHeadWithRock(rock);
-			//IMPORTANT: must do all collisions for valid edge testing on rocks
+			onCollisionBunnyHeadWithRock((Rock)obj);
 		}
-		
-		//Test collisions bunnyhead with gold coins
-		for(GoldCoin goldCoin: level.goldCoins)
+		else if(obj instanceof GoldCoin)
 		{
-			if(goldCoin.collected) continue;
-			r2.set(goldCoin.position.x, goldCoin.position.y, goldCoin.bounds.width, goldCoin.bounds.height);
-			if(!r1.overlaps(r2)) continue;
-			onCollisionBunnyWithGoldCoin(goldCoin);
-			break;
+			onCollisionBunnyWithGoldCoin((GoldCoin)obj);
 		}
-		
-		//Test collision bunnyhead with feathers
-		for(Feather feather: level.feathers)
+		else if(obj instanceof Feather)
 		{
-			if(feather.collected) continue;
-			r2.set(feather.position.x, feather.position.y, feather.bounds.width, feather.bounds.height);
-			if(!r1.overlaps(r2)) continue;
-			onCollisionBunnyWithFeather(feather);
-			break;
+			onCollisionBunnyWithFeather((Feather)obj);
 		}
-		
-		//Test collision bunnyhead with goal
-		if(!goalReached)
+		else if(obj instanceof Goal)
 		{
-			r2.set(level.goal.bounds);
-			r2.x += level.goal.position.x;
-			r2.y += level.goal.position.y;
-			if(r1.overlaps(r2))
-			{
-				onCollisionBunnyWithGoal();
-			}
+			onCollisionBunnyWithGoal();
 		}
-			
 	}
 	
 	/**
@@ -470,29 +578,115 @@ public class WorldController extends InputAdapter implements Disposable
 	}
 	
 	/**
-	 * Updates the world relative to the previous update
+	 * Sets how many fixed simulation steps are run per second
+	 * 
+	 * @param ticksPerSecond
+	 */
+	public void setTickRate(int ticksPerSecond)
+	{
+		tickDuration = 1.0f/ticksPerSecond;
+	}
+	
+	/**
+	 * Sets the most simulation steps that may run in one frame. Any time left over
+	 * after that is dropped so a long frame can't cause an even longer one
+	 * 
+	 * @param maxSubsteps
+	 */
+	public void setMaxSubsteps(int maxSubsteps)
+	{
+		this.maxSubsteps = Math.max(1, maxSubsteps);
+	}
+	
+	/**
+	 * Returns how far between the last two simulation steps the current frame is,
+	 * from 0 to 1. Always 1 when not using a fixed timestep
+	 * 
+	 * @return
+	 */
+	public float getInterpolationAlpha()
+	{
+		return interpolationAlpha;
+	}
+	
+	/**
+	 * Updates the world relative to the previous update. With a fixed timestep the frame's
+	 * time is collected and the simulation runs in steps of equal length
 	 * 
 	 * @param deltaTime
 	 */
 	public void update (float deltaTime)
 	{
+		FrameProfiler.instance.begin(Phase.INPUT);
 		handleDebugInput(deltaTime);
+		FrameProfiler.instance.end(Phase.INPUT);
+		if(!fixedTimestep)
+		{
+			if(!updateSimulation(deltaTime)) return;
+			interpolationAlpha = 1;
+		}
+		else
+		{
+			accumulator += deltaTime;
+			int steps = 0;
+			while(accumulator >= tickDuration && steps < maxSubsteps)
+			{
+				level.savePreviousState();
+				if(!updateSimulation(tickDuration)) return;
+				accumulator -= tickDuration;
+				steps++;
+			}
+			
+			//Drop time the simulation could not catch up on
+			if(accumulator >= tickDuration)
+			{
+				accumulator %= tickDuration;
+			}
+			interpolationAlpha = accumulator/tickDuration;
+		}
+		FrameProfiler.instance.begin(Phase.CAMERA);
+		//Follow where the player is drawn, not where it was last simulated
+		cameraHelper.update(deltaTime, interpolationAlpha);
+		
+		//Update decoration's position
+		level.updateScrollPosition(cameraHelper.getPosition());
+		FrameProfiler.instance.end(Phase.CAMERA);
+	}
+	
+	/**
+	 * Advances the game objects, collisions and physics by deltaTime. Returns false if
+	 * it went back to the menu, after which the world must not be updated any more
+	 * 
+	 * @param deltaTime
+	 * @return
+	 */
+	private boolean updateSimulation(float deltaTime)
+	{
 		if(isGameOver() || goalReached)
 		{
 			timeLeftGameOverDelay -= deltaTime;
 			if(timeLeftGameOverDelay < 0)
 			{
 				backToMenu();
+				return false;
 			}
 		}
 		else
 		{
+			FrameProfiler.instance.begin(Phase.INPUT);
 			handleInputGame(deltaTime);
+			FrameProfiler.instance.end(Phase.INPUT);
 		}
+		FrameProfiler.instance.begin(Phase.LEVEL_UPDATE);
+		updateStreaming();
 		level.update(deltaTime);
+		FrameProfiler.instance.end(Phase.LEVEL_UPDATE);
+		FrameProfiler.instance.begin(Phase.COLLISIONS);
 		testCollisions();
+		FrameProfiler.instance.end(Phase.COLLISIONS);
+		FrameProfiler.instance.begin(Phase.PHYSICS);
 		b2world.step(deltaTime, 8, 3);
-		cameraHelper.update(deltaTime);
+		FrameProfiler.instance.end(Phase.PHYSICS);
 		if(!isGameOver() && isPlayerInWater())
 		{
 			AudioManager.instance.play(Assets.instance.sounds.liveLost);
@@ -507,9 +701,6 @@ public class WorldController extends InputAdapter implements Disposable
 			}
 		}
 		
-		//Update mountains' position
-		level.mountains.updateScrollPosition(cameraHelper.getPosition());
-		
 		//Timer for losing a life
 		if(livesVisual > lives)
 		{
@@ -521,11 +712,15 @@ public class WorldController extends InputAdapter implements Disposable
 		{
 			scoreVisual = Math.min(score, scoreVisual+250*deltaTime);
 		}
+		return true;
 	}
 
 	@Override
 	public void dispose()
 	{
 //		if(b2world != null) b2world.dispose();
+		GamePreferences.instance.removeListener(this);
+		//Give the bunny's dust back for the next level
+		if(level != null) level.bunnyHead.dustParticles.free();
 	}
 }
@@ -1,15 +1,20 @@
 package game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Disposable;
-import utilities.CharacterSkin;
+import utilities.CachedText;
 import utilities.Constants;
+import utilities.FrameProfiler;
+import utilities.FrameProfiler.Phase;
 import utilities.GamePreferences;
+import utilities.SettingsListener;
 
 /**
  * This class is reponsible for drawing assets to the screen
@@ -17,13 +22,31 @@ import utilities.GamePreferences;
  * @author Raistlin Hess
  *
  */
-public class WorldRenderer implements Disposable
+public class WorldRenderer implements Disposable, SettingsListener
 {
 	private OrthographicCamera camera;
 	private OrthographicCamera cameraGUI;
 	private SpriteBatch batch;
 	private WorldController worldController;
 	private Box2DDebugRenderer b2debugRenderer;
+	private Rectangle viewBounds = new Rectangle();
+	private StaticGeometryCache staticGeometry;
+	//GUI text, laid out again only when the number shown changes
+	private CachedText scoreText = new CachedText("", Align.left);
+	private CachedText fpsText = new CachedText("FPS: ", Align.left);
+	private CachedText cullingText = new CachedText("Visible: ", " Culled: ", Align.right);
+	private CachedText featherText = new CachedText("", Align.left);
+	//What the cached GUI was last drawn with
+	private HudCache hudCache;
+	private Color skinColor = new Color();
+	private int guiScore;
+	private int guiLives;
+	private int guiFeather;
+	private int guiFps;
+	private int guiVisible;
+	private int guiCulled;
+	private boolean guiShowFps;
+	private boolean guiGameOver;
 	private static final boolean DEBUG_DRAW_BOX2D_WORLD = false;
 
 	/**
@@ -55,6 +78,28 @@ public class WorldRenderer implements Disposable
 		cameraGUI.update();
 		
 		b2debugRenderer = new Box2DDebugRenderer();
+		
+		//Mountains are uploaded once per level
+		if(Constants.STATIC_GEOMETRY_CACHE) staticGeometry = new StaticGeometryCache();
+		
+		//The GUI is drawn offscreen and only redrawn when it changes
+		if(Constants.HUD_FRAMEBUFFER_CACHE) hudCache = new HudCache();
+		
+		//The lives are drawn in the player's skin color
+		onSettingsUpdated(GamePreferences.instance);
+		GamePreferences.instance.addListener(this);
+	}
+	
+	/**
+	 * Keeps the skin color of the lives icons up to date
+	 * 
+	 * @param prefs
+	 */
+	@Override
+	public void onSettingsUpdated(GamePreferences prefs)
+	{
+		skinColor.set(prefs.getCharacterSkin().getColor());
+		if(hudCache != null) hudCache.invalidate();
 	}
 	
 	/**
@@ -62,8 +107,12 @@ public class WorldRenderer implements Disposable
 	 */
 	public void render()
 	{
+		FrameProfiler.instance.begin(Phase.RENDER_WORLD);
 		renderWorld(batch);
+		FrameProfiler.instance.end(Phase.RENDER_WORLD);
+		FrameProfiler.instance.begin(Phase.RENDER_GUI);
 		renderGui(batch);
+		FrameProfiler.instance.end(Phase.RENDER_GUI);
 	}
 	
 	/**
@@ -76,8 +125,23 @@ public class WorldRenderer implements Disposable
 	{
 		worldController.cameraHelper.applyTo(camera);
 		batch.setProjectionMatrix(camera.combined);
+		
+		//Area the camera sees, plus a margin so nothing pops in at the edges
+		float viewWidth = camera.viewportWidth*camera.zoom+2*Constants.CULLING_MARGIN;
+		float viewHeight = camera.viewportHeight*camera.zoom+2*Constants.CULLING_MARGIN;
+		viewBounds.set(camera.position.x-viewWidth/2, camera.position.y-viewHeight/2, viewWidth, viewHeight);
+		
+		if(staticGeometry != null)
+		{
+			if(!staticGeometry.isBuiltFor(worldController.level)) staticGeometry.build(worldController.level);
+			staticGeometry.setProjectionMatrix(camera.combined);
+		}
+		
 		batch.begin();
-			worldController.level.render(batch);
+			//Blend objects between the last two simulation steps
+			if(worldController.fixedTimestep) worldController.level.interpolate(worldController.getInterpolationAlpha());
+			worldController.level.render(batch, viewBounds, staticGeometry);
+			if(worldController.fixedTimestep) worldController.level.endInterpolation();
 		batch.end();
 		
 		if(DEBUG_DRAW_BOX2D_WORLD)
@@ -87,9 +151,77 @@ public class WorldRenderer implements Disposable
 	}
 	
 	/**
-	 * This method renders all the components in the GUI
+	 * This method renders the GUI, from the HUD cache if there is one. Public so it
+	 * can be benchmarked on its own
+	 */
+	public void renderGui(SpriteBatch batch)
+	{
+		if(hudCache == null || !hudCache.isReady())
+		{
+			drawGui(batch);
+			return;
+		}
+		
+		if(hasGuiChanged()) hudCache.invalidate();
+		if(hudCache.isDirty())
+		{
+			hudCache.begin(batch);
+			drawGui(batch);
+			hudCache.end(batch);
+		}
+		hudCache.render(batch, cameraGUI);
+	}
+	
+	/**
+	 * Compares everything the GUI shows with what it showed when it was last drawn
+	 * into the HUD cache. While the score shakes, a life is being lost or the profiler
+	 * is shown the GUI changes every frame, so those count as changed for as long as
+	 * they last
+	 * 
+	 * @return true if the GUI has to be drawn again
+	 */
+	private boolean hasGuiChanged()
+	{
+		boolean animating = worldController.scoreVisual < worldController.score
+			|| (worldController.lives >= 0 && worldController.livesVisual > worldController.lives)
+			|| GamePreferences.instance.showProfiler;
+		
+		//Whole seconds left and whether the icon is faded, -1 without the power-up
+		float timeLeftFeatherPowerup = worldController.level.bunnyHead.timeLeftFeatherPowerup;
+		int feather = -1;
+		if(timeLeftFeatherPowerup > 0)
+		{
+			int faded = timeLeftFeatherPowerup < 4 ? (int)((timeLeftFeatherPowerup*5) %2) : 0;
+			feather = (int)timeLeftFeatherPowerup*2+faded;
+		}
+		
+		boolean showFps = GamePreferences.instance.showFpsCounter;
+		int fps = showFps ? Gdx.graphics.getFramesPerSecond() : 0;
+		int visible = showFps ? worldController.level.numVisible : 0;
+		int culled = showFps ? worldController.level.numCulled : 0;
+		
+		boolean changed = animating || guiScore != (int)worldController.scoreVisual
+			|| guiLives != worldController.lives || guiFeather != feather
+			|| guiShowFps != showFps || guiFps != fps || guiVisible != visible || guiCulled != culled
+			|| guiGameOver != worldController.isGameOver();
+		
+		guiScore = (int)worldController.scoreVisual;
+		guiLives = worldController.lives;
+		guiFeather = feather;
+		guiShowFps = showFps;
+		guiFps = fps;
+		guiVisible = visible;
+		guiCulled = culled;
+		guiGameOver = worldController.isGameOver();
+		return changed;
+	}
+	
+	/**
+	 * This method draws all the components in the GUI
+	 * 
+	 * @param batch
 	 */
-	private void renderGui(SpriteBatch batch)
+	private void drawGui(SpriteBatch batch)
 	{
 		batch.setProjectionMatrix(cameraGUI.combined);
 		batch.begin();
@@ -102,8 +234,15 @@ public class WorldRenderer implements Disposable
 			//Draw extra lives icon and text to the top right edge
 			renderGuiExtraLive(batch);
 			
-			//Draw FPS text to bottom right edge
-			if(GamePreferences.instance.showFpsCounter) renderGuiFpsCounter(batch);
+			//Draw FPS text and culling counters to bottom right edge
+			if(GamePreferences.instance.showFpsCounter)
+			{
+				renderGuiFpsCounter(batch);
+				renderGuiCullingStats(batch);
+			}
+			
+			//Draw frame profiler percentiles below the feather icon
+			if(GamePreferences.instance.showProfiler) renderGuiProfiler(batch);
 			
 			//Draw game over text
 			renderGuiGameOverMessage(batch);
@@ -131,7 +270,8 @@ public class WorldRenderer implements Disposable
 		}
 		
 		batch.draw(Assets.instance.goldCoin.goldCoin, x, y, offsetX, offsetY, 100, 100, 0.35f, -0.35f, 0);
-		Assets.instance.fonts.defaultBig.draw(batch, ""+(int)worldController.scoreVisual, x+75, y+37);
+		scoreText.setValue(Assets.instance.fonts.defaultBig, (int)worldController.scoreVisual);
+		scoreText.draw(batch, x+75, y+37);
 	}
 	
 	/**
@@ -147,15 +287,12 @@ public class WorldRenderer implements Disposable
 		
 		for(int i = 0; i < Constants.LIVES_START; i++)
 		{
-			float r = CharacterSkin.values()[GamePreferences.instance.charSkin].getColor().r;
-			float g = CharacterSkin.values()[GamePreferences.instance.charSkin].getColor().g;
-			float b = CharacterSkin.values()[GamePreferences.instance.charSkin].getColor().b;
 			//Apply skincolor to lives
-			batch.setColor(CharacterSkin.values()[GamePreferences.instance.charSkin].getColor());
+			batch.setColor(skinColor);
 			
 			if(worldController.lives <= i)
 			{
-				batch.setColor(r, g, b, 0.3f);
+				batch.setColor(skinColor.r, skinColor.g, skinColor.b, 0.3f);
 			}
 			
 			//Draw lives
@@ -205,10 +342,45 @@ public class WorldRenderer implements Disposable
 			fpsFont.setColor(1,0,0,1);
 		}
 		
-		fpsFont.draw(batch, "FPS: "+fps, x, y);
+		fpsText.setValue(fpsFont, fps);
+		fpsText.draw(batch, x, y);
 		fpsFont.setColor(1,1,1,1);
 	}
 	
+	/**
+	 * This method renders how many level objects were drawn and how many were
+	 * culled in the last frame above the FPS counter
+	 * 
+	 * @param batch
+	 */
+	private void renderGuiCullingStats(SpriteBatch batch)
+	{
+		float x = cameraGUI.viewportWidth-10;
+		float y = cameraGUI.viewportHeight-35;
+		BitmapFont statsFont = Assets.instance.fonts.defaultNormal;
+		Level level = worldController.level;
+		cullingText.setValues(statsFont, level.numVisible, level.numCulled);
+		cullingText.draw(batch, x, y);
+	}
+	
+	/**
+	 * This method renders the p50/p95/p99 time of every frame phase from the
+	 * FrameProfiler, one phase per line
+	 * 
+	 * @param batch
+	 */
+	private void renderGuiProfiler(SpriteBatch batch)
+	{
+		float x = 10;
+		float y = 90;
+		BitmapFont profilerFont = Assets.instance.fonts.defaultSmall;
+		for(String line: FrameProfiler.instance.getSummary())
+		{
+			profilerFont.draw(batch, line, x, y);
+			y += 15;
+		}
+	}
+	
 	/**
 	 * Draws a message on the screen that says "Game Over" when the player is
 	 * out of extra lives
@@ -245,7 +417,8 @@ public class WorldRenderer implements Disposable
 			}
 			batch.draw(Assets.instance.feather.feather, x, y, 50, 50, 100, 100, 0.35f, -0.35f, 0);
 			batch.setColor(1,1,1,1);
-			Assets.instance.fonts.defaultSmall.draw(batch, "" + (int)timeLeftFeatherPowerup, x+60, y+57);
+			featherText.setValue(Assets.instance.fonts.defaultSmall, (int)timeLeftFeatherPowerup);
+			featherText.draw(batch, x+60, y+57);
 		}
 	}
 	
@@ -266,6 +439,17 @@ public class WorldRenderer implements Disposable
 		cameraGUI.viewportWidth = (Constants.VIEWPORT_GUI_HEIGHT/(float)height) *(float)width;
 		cameraGUI.position.set(cameraGUI.viewportWidth/2, cameraGUI.viewportHeight/2, 0);
 		cameraGUI.update();
+		
+		if(hudCache != null) hudCache.resize(width, height);
+	}
+
+	/**
+	 * The contents of the HUD cache are lost with the OpenGL context, so the GUI is
+	 * drawn again on the next frame
+	 */
+	public void resume()
+	{
+		if(hudCache != null) hudCache.invalidate();
 	}
 
 	/**
@@ -275,5 +459,8 @@ public class WorldRenderer implements Disposable
 	public void dispose()
 	{
 		batch.dispose();
+		if(staticGeometry != null) staticGeometry.dispose();
+		if(hudCache != null) hudCache.dispose();
+		GamePreferences.instance.removeListener(this);
 	}
 }
@@ -1,7 +1,6 @@
 package gui;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.assets.AssetManager;
 import game.Assets;
 
 /**
@@ -29,7 +28,7 @@ public abstract class AbstractGameScreen implements Screen
 	
 	public void resume()
 	{
-		Assets.instance.init(new AssetManager());
+		Assets.instance.onResume();
 	}
 	
 	public void dispose()
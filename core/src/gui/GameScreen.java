@@ -4,6 +4,7 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.GL20;
 import game.WorldController;
 import game.WorldRenderer;
+import utilities.FrameProfiler;
 import utilities.GamePreferences;
 
 /**
@@ -46,6 +47,7 @@ public class GameScreen extends AbstractGameScreen
 		
 		//Render game world to screen
 		worldRenderer.render();
+		FrameProfiler.instance.endFrame();
 	}
 	
 	/**
@@ -78,6 +80,7 @@ public class GameScreen extends AbstractGameScreen
 	{
 		worldController.dispose();
 		worldRenderer.dispose();
+		FrameProfiler.instance.stopRecording();
 		Gdx.input.setCatchBackKey(false);
 	}
 	
@@ -98,6 +101,8 @@ public class GameScreen extends AbstractGameScreen
 	@Override
 	public void resume()
 	{
+		super.resume();
+		worldRenderer.resume();
 		paused = false;
 	}
 }
@@ -0,0 +1,98 @@
+package gui;
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import game.Assets;
+import utilities.AudioManager;
+import utilities.Constants;
+
+/**
+ * This screen is shown while Assets loads. It loads a little every frame and draws
+ * a progress bar, then starts the music and moves on to the menu screen
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class LoadingScreen extends AbstractGameScreen
+{
+	private static final String TAG = LoadingScreen.class.getName();
+	private OrthographicCamera camera;
+	private ShapeRenderer shapeRenderer;
+
+	public LoadingScreen(Game game)
+	{
+		super(game);
+	}
+
+	/**
+	 * Loads assets for part of the frame and draws how far along loading is.
+	 * Switches to the menu screen once everything is loaded
+	 */
+	@Override
+	public void render(float deltaTime)
+	{
+		if(Assets.instance.update(Constants.LOADING_BUDGET_MILLIS))
+		{
+			AudioManager.instance.play(Assets.instance.music.song01);
+			game.setScreen(new MenuScreen(game));
+			return;
+		}
+
+		Gdx.gl.glClearColor(0,0,0,1);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+		//Progress bar in the middle of the screen
+		float width = camera.viewportWidth/2;
+		float height = 20;
+		float x = (camera.viewportWidth-width)/2;
+		float y = (camera.viewportHeight-height)/2;
+		shapeRenderer.setProjectionMatrix(camera.combined);
+		shapeRenderer.begin(ShapeType.Line);
+			shapeRenderer.setColor(1,1,1,1);
+			shapeRenderer.rect(x, y, width, height);
+		shapeRenderer.end();
+		shapeRenderer.begin(ShapeType.Filled);
+			shapeRenderer.setColor(1, 0.75f, 0.25f, 1);
+			shapeRenderer.rect(x+2, y+2, (width-4)*Assets.instance.getProgress(), height-4);
+		shapeRenderer.end();
+	}
+
+	/**
+	 * The progress bar is drawn in GUI units and stretched to the window
+	 */
+	@Override
+	public void resize(int width, int height){}
+
+	/**
+	 * Creates the camera and the renderer for the progress bar
+	 */
+	@Override
+	public void show()
+	{
+		camera = new OrthographicCamera();
+		camera.setToOrtho(false, Constants.VIEWPORT_GUI_WIDTH, Constants.VIEWPORT_GUI_HEIGHT);
+		shapeRenderer = new ShapeRenderer();
+		Gdx.app.debug(TAG, "Loading assets");
+	}
+
+	/**
+	 * Cleans up the progress bar renderer
+	 */
+	@Override
+	public void hide()
+	{
+		shapeRenderer.dispose();
+	}
+
+	@Override
+	public void pause(){}
+
+	/**
+	 * Loading picks up where it left off, so there is nothing to reload
+	 */
+	@Override
+	public void resume(){}
+}
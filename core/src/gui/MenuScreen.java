@@ -13,7 +13,6 @@ import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
@@ -71,6 +70,8 @@ public class MenuScreen extends AbstractGameScreen
 	private SelectBox<CharacterSkin> selCharSkin;
 	private Image imgCharSkin;
 	private CheckBox chkShowFpsCounter;
+	private CheckBox chkShowProfiler;
+	private CheckBox chkRecordProfilerCsv;
 	//Debug
 	private final float DEBUG_REBUILD_INTERVAL = 5.0f;
 	private boolean debugEnabled = false;
@@ -96,6 +97,8 @@ public class MenuScreen extends AbstractGameScreen
 		selCharSkin.setSelectedIndex(prefs.charSkin);
 		onCharSkinSelected(prefs.charSkin);
 		chkShowFpsCounter.setChecked(prefs.showFpsCounter);
+		chkShowProfiler.setChecked(prefs.showProfiler);
+		chkRecordProfilerCsv.setChecked(prefs.recordProfilerCsv);
 	}
 	
 	/**
@@ -111,6 +114,8 @@ public class MenuScreen extends AbstractGameScreen
 		prefs.volMusic = sldMusic.getValue();
 		prefs.charSkin = selCharSkin.getSelectedIndex();
 		prefs.showFpsCounter = chkShowFpsCounter.isChecked();
+		prefs.showProfiler = chkShowProfiler.isChecked();
+		prefs.recordProfilerCsv = chkRecordProfilerCsv.isChecked();
 		prefs.save();
 	}
 	
@@ -121,7 +126,7 @@ public class MenuScreen extends AbstractGameScreen
 	 */
 	private void onCharSkinSelected(int index)
 	{
-		CharacterSkin skin = CharacterSkin.values()[index];
+		CharacterSkin skin = CharacterSkin.get(index);
 		imgCharSkin.setColor(skin.getColor());
 	}
 	
@@ -151,8 +156,9 @@ public class MenuScreen extends AbstractGameScreen
 	 */
 	private void rebuildStage()
 	{
-		skinCanyonBunny = new Skin(Gdx.files.internal(Constants.SKIN_CANYONBUNNY_UI), new TextureAtlas(Constants.TEXTURE_ATLAS_UI));
-		skinLibgdx = new Skin(Gdx.files.internal(Constants.SKIN_LIBGDX_UI), new TextureAtlas(Constants.TEXTURE_ATLAS_LIBGDX_UI));
+		//Skins are owned by Assets and shared by every rebuild
+		skinCanyonBunny = Assets.instance.ui.skinCanyonBunny;
+		skinLibgdx = Assets.instance.ui.skinLibgdx;
 		
 		//Build all layers 
 		Table layerBackground = buildBackgroundLayer();
@@ -364,7 +370,7 @@ public class MenuScreen extends AbstractGameScreen
 		// + Character skin: selection box (white, gray, brown)
 		winOptions.add(buildOptWinSkinSelection()).row();
 		
-		// + Debug: Show fps
+		// + Debug: Show fps, frame profiler
 		winOptions.add(buildOptWinDebug()).row();
 		
 		// + Separator and buttons (save, cancel)
@@ -388,7 +394,8 @@ public class MenuScreen extends AbstractGameScreen
 	}
 	
 	/**
-	 * This returns a Table with checkboxes for toggling the FPS counter
+	 * This returns a Table with checkboxes for toggling the FPS counter and
+	 * the frame profiler
 	 */
 	private Table buildOptWinDebug()
 	{
@@ -407,6 +414,18 @@ public class MenuScreen extends AbstractGameScreen
 		tbl.add(chkShowFpsCounter);
 		tbl.row();
 		
+		// Checkbox "Show Frame Profiler"
+		chkShowProfiler = new CheckBox("", skinLibgdx);
+		tbl.add(new Label("Show Frame Profiler", skinLibgdx));
+		tbl.add(chkShowProfiler);
+		tbl.row();
+		
+		// Checkbox "Record Profile CSV"
+		chkRecordProfilerCsv = new CheckBox("", skinLibgdx);
+		tbl.add(new Label("Record Profile CSV", skinLibgdx));
+		tbl.add(chkRecordProfilerCsv);
+		tbl.row();
+		
 		return tbl;
 	}
 	
@@ -571,14 +590,13 @@ public class MenuScreen extends AbstractGameScreen
 	}
 	
 	/**
-	 * Cleans up the stage and textures from memory
+	 * Cleans up the stage. The skins stay loaded in Assets for the next time
+	 * the menu is shown
 	 */
 	@Override
 	public void hide()
 	{
 		stage.dispose();
-		skinCanyonBunny.dispose();
-		skinLibgdx.dispose();
 	}
 	
 	@Override
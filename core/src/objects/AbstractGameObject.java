@@ -1,4 +1,5 @@
 package objects;
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
@@ -25,8 +26,15 @@ public abstract class AbstractGameObject
 	public Rectangle bounds;			//describes physical body for collision detection
 	public Body body;
 	public float rotation;
+	public Vector2 previousPosition;	//position before the last fixed simulation step
+	public float previousRotation;
+	private Vector2 simulatedPosition;
+	private float simulatedRotation;
 	public float stateTime;
 	public Animation animation;
+	public Entity entity;				//entity standing for this object in a level's engine
+	public boolean asleep;				//true while the level doesn't update this object
+	public float asleepSince;			//level time the object was put to sleep at
 	
 	/**
 	 * Initialize variables
@@ -43,6 +51,42 @@ public abstract class AbstractGameObject
 		friction = new Vector2();
 		acceleration = new Vector2();
 		bounds = new Rectangle();
+		previousPosition = new Vector2();
+		simulatedPosition = new Vector2();
+	}
+	
+	/**
+	 * Remembers the current position and rotation so rendering can blend between
+	 * this and the next simulation step
+	 */
+	public void savePreviousState()
+	{
+		previousPosition.set(position);
+		previousRotation = rotation;
+	}
+	
+	/**
+	 * Moves the object to a point between its previous and current state for drawing.
+	 * alpha is how far the renderer is between the two simulation steps, from 0 to 1.
+	 * endInterpolation() must be called after rendering to restore the simulated state
+	 * 
+	 * @param alpha
+	 */
+	public void interpolate(float alpha)
+	{
+		simulatedPosition.set(position);
+		simulatedRotation = rotation;
+		position.set(previousPosition).lerp(simulatedPosition, alpha);
+		rotation = previousRotation+(simulatedRotation-previousRotation)*alpha;
+	}
+	
+	/**
+	 * Restores the simulated position and rotation after interpolate(alpha)
+	 */
+	public void endInterpolation()
+	{
+		position.set(simulatedPosition);
+		rotation = simulatedRotation;
 	}
 	
 	/**
@@ -63,11 +107,38 @@ public abstract class AbstractGameObject
 		}
 		else
 		{
-			position.set(body.getPosition());
-			rotation = body.getAngle()*MathUtils.radiansToDegrees;
+			syncWithBody();
 		}
 	}
 	
+	/**
+	 * Called when the level stops updating this object because it is far from the
+	 * camera and player
+	 */
+	public void sleep()
+	{
+	}
+	
+	/**
+	 * Called when the level starts updating this object again after sleptTime seconds.
+	 * Catches up on the time it missed
+	 * 
+	 * @param sleptTime
+	 */
+	public void wake(float sleptTime)
+	{
+		stateTime += sleptTime;
+	}
+	
+	/**
+	 * Moves and rotates this object to match its Box2D body
+	 */
+	public void syncWithBody()
+	{
+		position.set(body.getPosition());
+		rotation = body.getAngle()*MathUtils.radiansToDegrees;
+	}
+	
 	/**
 	 * This method is responsible for managing velocity and friction of the object
 	 * along the X-plane
@@ -131,6 +202,18 @@ public abstract class AbstractGameObject
 		stateTime = 0;
 	}
 	
+	/**
+	 * Sets out to the area the object covers when it is drawn and returns out, so
+	 * objects outside of the view can be skipped
+	 * 
+	 * @param out
+	 * @return
+	 */
+	public Rectangle getRenderBounds(Rectangle out)
+	{
+		return out.set(position.x-origin.x, position.y-origin.y, dimension.x, dimension.y);
+	}
+	
 	/**
 	 * All objects will need to implement their own rendering method
 	 * 
@@ -1,10 +1,12 @@
 package objects;
-import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
 import game.Assets;
 import utilities.AudioManager;
 import utilities.CharacterSkin;
@@ -28,7 +30,9 @@ public class BunnyHead extends AbstractGameObject
 	public JUMP_STATE jumpState;
 	public boolean hasFeatherPowerup;
 	public float timeLeftFeatherPowerup;
-	public ParticleEffect dustParticles = new ParticleEffect();
+	public PooledEffect dustParticles;
+	public Vector2 lastPosition = new Vector2();	//position before the last update, collisions are swept from here
+	private Color skinColor = new Color();
 	private Animation animNormal;
 	private Animation animCopterTransform;
 	private Animation animCopterTransformBack;
@@ -78,8 +82,12 @@ public class BunnyHead extends AbstractGameObject
 		hasFeatherPowerup = false;
 		timeLeftFeatherPowerup = 0;
 		
-		//Particles
-		dustParticles.load(Gdx.files.internal("particles/dust.pfx"),Gdx.files.internal("particles"));
+		//Skin color, kept up to date by WorldController when the settings change
+		setSkin(GamePreferences.instance.getCharacterSkin());
+		
+		//Particles, taken from the pool the first time and restarted after that
+		if(dustParticles == null) dustParticles = Assets.instance.particles.dust.obtain();
+		dustParticles.reset();
 	}
 	
 	/**
@@ -120,6 +128,16 @@ public class BunnyHead extends AbstractGameObject
 		}
 	}
 	
+	/**
+	 * Sets the color the bunny is tinted with
+	 * 
+	 * @param skin
+	 */
+	public void setSkin(CharacterSkin skin)
+	{
+		skinColor.set(skin.getColor());
+	}
+	
 	/**
 	 * This applied the Feather's powerup effect to this object
 	 * 
@@ -145,6 +163,7 @@ public class BunnyHead extends AbstractGameObject
 	@Override
 	public void update(float deltaTime)
 	{
+		lastPosition.set(position);
 		super.update(deltaTime);
 		if (velocity.x != 0)
 		{
@@ -255,6 +274,15 @@ public class BunnyHead extends AbstractGameObject
 		}
 	}
 	
+	/**
+	 * The bunny head is drawn from its position, its origin is only for rotating
+	 */
+	@Override
+	public Rectangle getRenderBounds(Rectangle out)
+	{
+		return out.set(position.x, position.y, dimension.x, dimension.y);
+	}
+	
 	/**
 	 * Renders the bunny head. If it has a feather power-up, draw it with a colored overlay
 	 * 
@@ -266,7 +294,7 @@ public class BunnyHead extends AbstractGameObject
 		TextureRegion reg = null;
 		
 		//Apply skin color
-		batch.setColor(CharacterSkin.values()[GamePreferences.instance.charSkin].getColor());
+		batch.setColor(skinColor);
 		
 		//Draw Particles
 		dustParticles.draw(batch);
@@ -1,9 +1,10 @@
 package objects;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import game.Assets;
+import utilities.GameRandom;
 
 /**
  * This class represents a Rock game object
@@ -14,12 +15,16 @@ import game.Assets;
 public class Rock extends AbstractGameObject
 {
 	private final float FLOAT_CYCLE_TIME = 2.0f;
-	private final float FLOAT_AMPLITUDE = 0.25f;
+	private final float FLOAT_AMPLITUDE = 0.25f;	//speed at the start of each float cycle
+	//How quickly the float speed dies down, about 2% each frame at 60 frames per second
+	private final float FLOAT_DAMPING = -60.0f*(float)Math.log(0.98f);
+	//How far the rock floats in one cycle
+	private final float FLOAT_DISTANCE = getFloatDistance(FLOAT_CYCLE_TIME);
 	private TextureRegion regEdge;
 	private TextureRegion regMiddle;
 	private int length;
-	private float floatCycleTimeLeft;
-	private boolean floatingDownwards;
+	private Vector2 floatOrigin;		//top of the float, where the rock was placed
+	private float floatDelay;			//time the rock rests at the top before it starts floating
 	private Vector2 floatTargetPosition;
 	
 	public Rock()
@@ -41,11 +46,35 @@ public class Rock extends AbstractGameObject
 		setLength(1);
 		
 		//Initialize floating
-		floatingDownwards = false;
-		floatCycleTimeLeft = MathUtils.random(0, FLOAT_CYCLE_TIME/2);
+		floatOrigin = new Vector2();
+		resetFloating();
 		floatTargetPosition = null;
 	}
 	
+	/**
+	 * Starts the float over from the top. The rock rests there for a random time of up
+	 * to half a cycle first, so neighbouring rocks don't float in step
+	 */
+	public void resetFloating()
+	{
+		stateTime = 0;
+		floatDelay = GameRandom.instance.random(0, FLOAT_CYCLE_TIME/2);
+		position.set(floatOrigin);
+		velocity.set(0, 0);
+	}
+	
+	/**
+	 * Places the rock with the top of its float at (x, y)
+	 * 
+	 * @param x
+	 * @param y
+	 */
+	public void setFloatOrigin(float x, float y)
+	{
+		floatOrigin.set(x, y);
+		position.set(x, y-getFloatDepth(stateTime));
+	}
+	
 	/**
 	 * Sets the length of this Rock to parameter length and adjusts 
 	 * its bounding box accordingly
@@ -65,6 +94,15 @@ public class Rock extends AbstractGameObject
 		setLength(length+amount);
 	}
 	
+	/**
+	 * The edges stick out a quarter of a block on both sides
+	 */
+	@Override
+	public Rectangle getRenderBounds(Rectangle out)
+	{
+		return out.set(position.x-dimension.x/4, position.y, bounds.width+dimension.x/2, dimension.y);
+	}
+	
 	/**
 	 * This draws the rock with edges. It stretches the center part for as long as it needs to and adds edges at the edges
 	 */
@@ -94,21 +132,90 @@ public class Rock extends AbstractGameObject
 		batch.draw(reg.getTexture(), position.x+relX, position.y+relY, origin.x+dimension.x/8, origin.y, dimension.x/4, dimension.y, scale.x, scale.y, rotation, reg.getRegionX(), reg.getRegionY(), reg.getRegionWidth(), reg.getRegionHeight(), true, false);
 	}
 	
+	/**
+	 * Moves the rock along its float curve and sets the velocity that takes its body to
+	 * the same point of the curve during the next physics step. The curve only depends
+	 * on stateTime, so the rock floats the same at any frame rate. The body's velocity
+	 * is set by the level's KinematicBodySystem
+	 */
 	@Override
 	public void update(float deltaTime)
 	{
-		super.update(deltaTime);
-		
-		floatCycleTimeLeft -= deltaTime;
-		if(floatCycleTimeLeft <= 0)
-		{
-			floatCycleTimeLeft = FLOAT_CYCLE_TIME;
-			floatingDownwards = !floatingDownwards;
-			body.setLinearVelocity(0, FLOAT_AMPLITUDE*(floatingDownwards ? -1:1));
-		}
-		else
+		advanceFloat(deltaTime);
+		float depth = getFloatDepth(stateTime);
+		position.y = floatOrigin.y-depth;
+		velocity.y = deltaTime > 0 ? (depth-getFloatDepth(stateTime+deltaTime))/deltaTime : 0;
+	}
+	
+	/**
+	 * Stops the rock's body, so Box2D no longer moves it while the rock isn't updated.
+	 * Carrots still land on it
+	 */
+	@Override
+	public void sleep()
+	{
+		velocity.set(0, 0);
+		if(body == null) return;
+		body.setLinearVelocity(velocity);
+		body.setAwake(false);
+	}
+	
+	/**
+	 * Moves the rock and its body to the point of the float curve sleptTime later.
+	 * The next update starts the body moving again
+	 */
+	@Override
+	public void wake(float sleptTime)
+	{
+		advanceFloat(sleptTime);
+		position.y = floatOrigin.y-getFloatDepth(stateTime);
+		if(body == null) return;
+		body.setTransform(position, 0);
+		body.setAwake(true);
+	}
+	
+	/**
+	 * Advances stateTime by deltaTime. Once the rock is floating its curve repeats every
+	 * two cycles, so stateTime is kept within the first two to stay precise
+	 * 
+	 * @param deltaTime
+	 */
+	private void advanceFloat(float deltaTime)
+	{
+		stateTime += deltaTime;
+		float period = 2*FLOAT_CYCLE_TIME;
+		if(stateTime-floatDelay >= period)
 		{
-			body.setLinearVelocity(body.getLinearVelocity().scl(0.98f));
+			stateTime -= period*(int)((stateTime-floatDelay)/period);
 		}
 	}
+	
+	/**
+	 * Returns how far below the top of its float the rock is at the given stateTime.
+	 * Each cycle starts at FLOAT_AMPLITUDE and slows down exponentially, like the
+	 * damped velocity the rocks used to be stepped with
+	 * 
+	 * @param time
+	 * @return
+	 */
+	private float getFloatDepth(float time)
+	{
+		time -= floatDelay;
+		if(time <= 0) return 0;
+		int cycle = (int)(time/FLOAT_CYCLE_TIME);
+		float distance = getFloatDistance(time-cycle*FLOAT_CYCLE_TIME);
+		//Even cycles float down from the top, odd ones back up
+		return cycle%2 == 0 ? distance : FLOAT_DISTANCE-distance;
+	}
+	
+	/**
+	 * Returns how far the rock floats in the first time seconds of a float cycle
+	 * 
+	 * @param time
+	 * @return
+	 */
+	private float getFloatDistance(float time)
+	{
+		return FLOAT_AMPLITUDE/FLOAT_DAMPING*(1-(float)Math.exp(-FLOAT_DAMPING*time));
+	}
 }
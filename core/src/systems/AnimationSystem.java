@@ -0,0 +1,27 @@
+package systems;
+import com.badlogic.ashley.core.Family;
+import components.AnimationComponent;
+import components.ObjectComponent;
+
+/**
+ * Advances the stateTime that drives the animation of every object
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class AnimationSystem extends ObjectSystem
+{
+	public AnimationSystem(int priority)
+	{
+		super(Family.all(ObjectComponent.class, AnimationComponent.class).get(), priority, true);
+	}
+	
+	@Override
+	public void process(int from, int to)
+	{
+		for(int i = from; i < to; i++)
+		{
+			objects.get(i).stateTime += deltaTime;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package systems;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import components.BroadPhaseComponent;
+import components.ObjectComponent;
+import objects.AbstractGameObject;
+import utilities.BroadPhase;
+
+/**
+ * Inserts the object of every entity with a BroadPhaseComponent into its broad phase
+ * when the entity joins the engine and removes it when the entity leaves. Every broad
+ * phase used so far is kept in the order it was first used, so the systems can query
+ * all of them without knowing the object types. It follows every object's entity and
+ * skips the ones without a BroadPhaseComponent instead of using a family of its own:
+ * Ashley searches every family an entity leaves, so each extra family holding all the
+ * pickups would make collecting one slower
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class BroadPhaseIndex implements EntityListener
+{
+	private static final Family OBJECTS = Family.all(ObjectComponent.class).get();
+	private ComponentMapper<ObjectComponent> objectMapper = ComponentMapper.getFor(ObjectComponent.class);
+	private ComponentMapper<BroadPhaseComponent> broadPhaseMapper = ComponentMapper.getFor(BroadPhaseComponent.class);
+	private Array<BroadPhase<AbstractGameObject>> broadPhases;
+	
+	public BroadPhaseIndex()
+	{
+		broadPhases = new Array<BroadPhase<AbstractGameObject>>();
+	}
+	
+	/**
+	 * Returns every broad phase used so far
+	 * 
+	 * @return
+	 */
+	public Array<BroadPhase<AbstractGameObject>> getBroadPhases()
+	{
+		return broadPhases;
+	}
+	
+	/**
+	 * Returns the broad phase the object of entity is kept in, or null if it isn't kept
+	 * in one
+	 * 
+	 * @param entity
+	 * @return
+	 */
+	public BroadPhase<AbstractGameObject> getBroadPhase(Entity entity)
+	{
+		BroadPhaseComponent component = broadPhaseMapper.get(entity);
+		return component == null ? null : component.broadPhase;
+	}
+	
+	/**
+	 * Inserts the objects of the entities already in engine and follows the entities
+	 * added to and removed from it afterwards
+	 * 
+	 * @param engine
+	 */
+	public void attach(Engine engine)
+	{
+		ImmutableArray<Entity> entities = engine.getEntitiesFor(OBJECTS);
+		for(int i = 0; i < entities.size(); i++)
+		{
+			entityAdded(entities.get(i));
+		}
+		engine.addEntityListener(OBJECTS, this);
+	}
+	
+	/**
+	 * Stops following engine and forgets the broad phases. Objects already inserted
+	 * stay where they are
+	 * 
+	 * @param engine
+	 */
+	public void detach(Engine engine)
+	{
+		engine.removeEntityListener(this);
+		broadPhases.clear();
+	}
+	
+	@Override
+	public void entityAdded(Entity entity)
+	{
+		BroadPhase<AbstractGameObject> broadPhase = getBroadPhase(entity);
+		if(broadPhase == null) return;
+		broadPhase.insert(objectMapper.get(entity).object);
+		if(!broadPhases.contains(broadPhase, true)) broadPhases.add(broadPhase);
+	}
+	
+	@Override
+	public void entityRemoved(Entity entity)
+	{
+		BroadPhase<AbstractGameObject> broadPhase = getBroadPhase(entity);
+		if(broadPhase != null) broadPhase.remove(objectMapper.get(entity).object);
+	}
+}
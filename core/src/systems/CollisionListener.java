@@ -0,0 +1,18 @@
+package systems;
+import objects.AbstractGameObject;
+
+/**
+ * Responds to the player touching an object found by the CollisionSystem
+ *
+ * @author Raistlin Hess
+ *
+ */
+public interface CollisionListener
+{
+	/**
+	 * Called for every object the player overlaps, see CollisionComponent
+	 * 
+	 * @param obj
+	 */
+	public void onCollision(AbstractGameObject obj);
+}
@@ -0,0 +1,139 @@
+package systems;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import components.BroadPhaseComponent;
+import components.CollisionComponent;
+import components.ObjectComponent;
+import objects.AbstractGameObject;
+import utilities.BroadPhase;
+import utilities.PartitionedArray;
+
+/**
+ * Finds the objects of every entity with a CollisionComponent that overlap the player
+ * and hands them to a CollisionListener. Objects kept in a broad phase are found with a
+ * query, the few others are all checked. The controller calls it between the level
+ * update and the physics step, instead of the engine
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class CollisionSystem
+{
+	public static final Family FAMILY = Family.all(ObjectComponent.class, CollisionComponent.class).get();
+	private ComponentMapper<CollisionComponent> collisionMapper = ComponentMapper.getFor(CollisionComponent.class);
+	private BroadPhaseIndex broadPhaseIndex;
+	//Every object, only for testing without the broad phases. Not a family of its own,
+	//so taking a pickup out of play doesn't have to search one more family
+	private ObjectSet allObjects;
+	//Objects that aren't kept in a broad phase
+	private ObjectSet unindexedObjects;
+	private Array<AbstractGameObject> nearbyObjects;
+	//Broad phases that already had their only hit in the current test
+	private Array<BroadPhase<AbstractGameObject>> finishedBroadPhases;
+	private Rectangle objectBounds;
+	
+	public CollisionSystem(BroadPhaseIndex broadPhaseIndex)
+	{
+		this.broadPhaseIndex = broadPhaseIndex;
+		allObjects = new ObjectSet(Family.all(ObjectComponent.class).get());
+		unindexedObjects = new ObjectSet(Family.all(ObjectComponent.class, CollisionComponent.class).exclude(BroadPhaseComponent.class).get());
+		nearbyObjects = new Array<AbstractGameObject>();
+		finishedBroadPhases = new Array<BroadPhase<AbstractGameObject>>();
+		objectBounds = new Rectangle();
+	}
+	
+	/**
+	 * Follows the entities of engine that can be touched
+	 * 
+	 * @param engine
+	 */
+	public void attach(Engine engine)
+	{
+		allObjects.attach(engine);
+		unindexedObjects.attach(engine);
+	}
+	
+	/**
+	 * Stops following engine
+	 * 
+	 * @param engine
+	 */
+	public void detach(Engine engine)
+	{
+		allObjects.detach(engine);
+		unindexedObjects.detach(engine);
+	}
+	
+	/**
+	 * Tells listener about every object overlapping bounds. The broad phases are asked
+	 * for the objects near bounds, unless useBroadPhase is false: then every object is
+	 * tested, for comparison. listener may take objects out of play while this runs
+	 * 
+	 * @param bounds
+	 * @param useBroadPhase
+	 * @param listener
+	 */
+	public void testCollisions(Rectangle bounds, boolean useBroadPhase, CollisionListener listener)
+	{
+		finishedBroadPhases.clear();
+		if(useBroadPhase)
+		{
+			Array<BroadPhase<AbstractGameObject>> broadPhases = broadPhaseIndex.getBroadPhases();
+			for(int i = 0; i < broadPhases.size; i++)
+			{
+				test(bounds, broadPhases.get(i).query(bounds, nearbyObjects), listener);
+			}
+			test(bounds, copyAll(unindexedObjects, nearbyObjects), listener);
+		}
+		else
+		{
+			test(bounds, copyAll(allObjects, nearbyObjects), listener);
+		}
+	}
+	
+	/**
+	 * Tells listener about every object of objects overlapping bounds, skipping the
+	 * broad phases that are finished
+	 * 
+	 * @param bounds
+	 * @param objects
+	 * @param listener
+	 */
+	private void test(Rectangle bounds, Array<AbstractGameObject> objects, CollisionListener listener)
+	{
+		for(int i = 0; i < objects.size; i++)
+		{
+			AbstractGameObject obj = objects.get(i);
+			objectBounds.set(obj.position.x+obj.bounds.x, obj.position.y+obj.bounds.y, obj.bounds.width, obj.bounds.height);
+			if(!bounds.overlaps(objectBounds) || !FAMILY.matches(obj.entity)) continue;
+			BroadPhase<AbstractGameObject> broadPhase = broadPhaseIndex.getBroadPhase(obj.entity);
+			if(broadPhase != null && finishedBroadPhases.contains(broadPhase, true)) continue;
+			
+			boolean firstHitOnly = collisionMapper.get(obj.entity).firstHitOnly;
+			listener.onCollision(obj);
+			if(firstHitOnly && broadPhase != null) finishedBroadPhases.add(broadPhase);
+		}
+	}
+	
+	/**
+	 * Copies every object of objectSet to out and returns out, so the listener can
+	 * take objects out of play while they are tested
+	 * 
+	 * @param objectSet
+	 * @param out
+	 * @return
+	 */
+	private static Array<AbstractGameObject> copyAll(ObjectSet objectSet, Array<AbstractGameObject> out)
+	{
+		out.clear();
+		PartitionedArray<AbstractGameObject> objects = objectSet.getObjects();
+		for(int i = 0; i < objects.getTotalSize(); i++)
+		{
+			out.add(objects.get(i));
+		}
+		return out;
+	}
+}
@@ -0,0 +1,31 @@
+package systems;
+import com.badlogic.ashley.core.Family;
+import components.KinematicComponent;
+import components.ObjectComponent;
+import objects.AbstractGameObject;
+
+/**
+ * Sets the velocity of every kinematic body to the velocity its object worked out in
+ * its update, in one pass before the physics step. The objects never call into Box2D
+ * themselves, so their update stays cheap
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class KinematicBodySystem extends ObjectSystem
+{
+	public KinematicBodySystem(int priority)
+	{
+		super(Family.all(ObjectComponent.class, KinematicComponent.class).get(), priority);
+	}
+	
+	@Override
+	public void process(int from, int to)
+	{
+		for(int i = from; i < to; i++)
+		{
+			AbstractGameObject obj = objects.get(i);
+			if(obj.body != null) obj.body.setLinearVelocity(obj.velocity);
+		}
+	}
+}
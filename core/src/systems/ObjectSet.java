@@ -0,0 +1,93 @@
+package systems;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import components.ObjectComponent;
+import objects.AbstractGameObject;
+import utilities.PartitionedArray;
+
+/**
+ * Keeps the game objects of a family in a plain array while it is attached to an
+ * engine, so looping over them doesn't look up any components. Sleeping objects are
+ * kept behind the awake ones, and moving an object between the two is a swap
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class ObjectSet implements EntityListener, SleepListener
+{
+	private Family family;
+	private ComponentMapper<ObjectComponent> objectMapper = ComponentMapper.getFor(ObjectComponent.class);
+	private PartitionedArray<AbstractGameObject> objects;
+	
+	public ObjectSet(Family family)
+	{
+		this.family = family;
+		objects = new PartitionedArray<AbstractGameObject>();
+	}
+	
+	/**
+	 * Returns the objects of the family. The first size of them are awake
+	 * 
+	 * @return
+	 */
+	public PartitionedArray<AbstractGameObject> getObjects()
+	{
+		return objects;
+	}
+	
+	/**
+	 * Adds the objects of the family already in engine and follows the entities added
+	 * to and removed from it afterwards
+	 * 
+	 * @param engine
+	 */
+	public void attach(Engine engine)
+	{
+		ImmutableArray<Entity> entities = engine.getEntitiesFor(family);
+		for(int i = 0; i < entities.size(); i++)
+		{
+			entityAdded(entities.get(i));
+		}
+		engine.addEntityListener(family, this);
+	}
+	
+	/**
+	 * Stops following engine and forgets every object
+	 * 
+	 * @param engine
+	 */
+	public void detach(Engine engine)
+	{
+		engine.removeEntityListener(this);
+		objects.clear();
+	}
+	
+	@Override
+	public void entityAdded(Entity entity)
+	{
+		AbstractGameObject obj = objectMapper.get(entity).object;
+		objects.add(obj, !obj.asleep);
+	}
+	
+	@Override
+	public void entityRemoved(Entity entity)
+	{
+		objects.remove(objectMapper.get(entity).object);
+	}
+	
+	@Override
+	public void objectFellAsleep(AbstractGameObject obj)
+	{
+		objects.deactivate(obj);
+	}
+	
+	@Override
+	public void objectWokeUp(AbstractGameObject obj)
+	{
+		objects.activate(obj);
+	}
+}
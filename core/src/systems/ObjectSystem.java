@@ -0,0 +1,78 @@
+package systems;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import objects.AbstractGameObject;
+import utilities.PartitionedArray;
+import utilities.PhaseScheduler;
+import utilities.PhaseScheduler.RangeTask;
+
+/**
+ * A system over the game objects of a family, kept in an ObjectSet. Sleeping objects
+ * are kept behind the awake ones and skipped. Every system loops over its range of
+ * awake objects in its own process(from, to), so the calls in the loop only ever see
+ * the one system and can be inlined. A parallel system runs its ranges on the
+ * PhaseScheduler, which is only safe if updating one object never touches another
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public abstract class ObjectSystem extends EntitySystem implements SleepListener, RangeTask
+{
+	private ObjectSet objectSet;
+	protected PartitionedArray<AbstractGameObject> objects;
+	private boolean parallel;
+	//Time step of the current update, for the ranges
+	protected float deltaTime;
+	
+	public ObjectSystem(Family family, int priority)
+	{
+		this(family, priority, false);
+	}
+	
+	public ObjectSystem(Family family, int priority, boolean parallel)
+	{
+		super(priority);
+		this.parallel = parallel;
+		objectSet = new ObjectSet(family);
+		objects = objectSet.getObjects();
+	}
+	
+	@Override
+	public void update(float deltaTime)
+	{
+		this.deltaTime = deltaTime;
+		if(parallel)
+		{
+			PhaseScheduler.instance.run(objects.size, this);
+		}
+		else
+		{
+			process(0, objects.size);
+		}
+	}
+	
+	@Override
+	public void addedToEngine(Engine engine)
+	{
+		objectSet.attach(engine);
+	}
+	
+	@Override
+	public void removedFromEngine(Engine engine)
+	{
+		objectSet.detach(engine);
+	}
+	
+	@Override
+	public void objectFellAsleep(AbstractGameObject obj)
+	{
+		objectSet.objectFellAsleep(obj);
+	}
+	
+	@Override
+	public void objectWokeUp(AbstractGameObject obj)
+	{
+		objectSet.objectWokeUp(obj);
+	}
+}
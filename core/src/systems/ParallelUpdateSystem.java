@@ -0,0 +1,29 @@
+package systems;
+import com.badlogic.ashley.core.Family;
+import components.ObjectComponent;
+import components.ParallelComponent;
+import components.UpdateComponent;
+
+/**
+ * Runs update(deltaTime) of every object that does all of its own updating without
+ * touching other objects, split over the PhaseScheduler's threads
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class ParallelUpdateSystem extends ObjectSystem
+{
+	public ParallelUpdateSystem(int priority)
+	{
+		super(Family.all(ObjectComponent.class, UpdateComponent.class, ParallelComponent.class).get(), priority, true);
+	}
+	
+	@Override
+	public void process(int from, int to)
+	{
+		for(int i = from; i < to; i++)
+		{
+			objects.get(i).update(deltaTime);
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package systems;
+import com.badlogic.ashley.core.Family;
+import components.BodyComponent;
+import components.ObjectComponent;
+import objects.AbstractGameObject;
+
+/**
+ * Moves every object to where its Box2D body is after the last physics step
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class PhysicsSyncSystem extends ObjectSystem
+{
+	public PhysicsSyncSystem(int priority)
+	{
+		super(Family.all(ObjectComponent.class, BodyComponent.class).get(), priority, true);
+	}
+	
+	@Override
+	public void process(int from, int to)
+	{
+		for(int i = from; i < to; i++)
+		{
+			AbstractGameObject obj = objects.get(i);
+			if(obj.body != null) obj.syncWithBody();
+		}
+	}
+}
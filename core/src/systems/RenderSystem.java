@@ -0,0 +1,154 @@
+package systems;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import components.BroadPhaseComponent;
+import components.ObjectComponent;
+import components.RenderComponent;
+import objects.AbstractGameObject;
+import utilities.BroadPhase;
+import utilities.PartitionedArray;
+
+/**
+ * Draws the objects of every entity with a RenderComponent that are in view, layer by
+ * layer. Objects kept in a broad phase are found with a query on the view, so only
+ * the ones near it are visited; the few others are all checked. It draws once per
+ * frame instead of once per step, so the level calls it instead of the engine. The
+ * drawn entities are counted from every object's entity rather than kept in a family,
+ * since each family an entity is in makes taking it out of play slower
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class RenderSystem implements EntityListener
+{
+	public static final Family FAMILY = Family.all(ObjectComponent.class, RenderComponent.class).get();
+	private static final Family OBJECTS = Family.all(ObjectComponent.class).get();
+	private ComponentMapper<RenderComponent> renderMapper = ComponentMapper.getFor(RenderComponent.class);
+	private BroadPhaseIndex broadPhaseIndex;
+	//Objects that aren't kept in a broad phase
+	private ObjectSet unindexedObjects;
+	//Entities of the family in the engine
+	private int numEntities;
+	//Visible objects of the current frame, one array per layer
+	private Array<Array<AbstractGameObject>> layers;
+	private Array<AbstractGameObject> nearbyObjects;
+	private Rectangle renderBounds;
+	public int numVisible;
+	public int numCulled;
+	
+	public RenderSystem(BroadPhaseIndex broadPhaseIndex)
+	{
+		this.broadPhaseIndex = broadPhaseIndex;
+		unindexedObjects = new ObjectSet(Family.all(ObjectComponent.class, RenderComponent.class).exclude(BroadPhaseComponent.class).get());
+		layers = new Array<Array<AbstractGameObject>>();
+		nearbyObjects = new Array<AbstractGameObject>();
+		renderBounds = new Rectangle();
+	}
+	
+	/**
+	 * Follows the entities of engine that are drawn
+	 * 
+	 * @param engine
+	 */
+	public void attach(Engine engine)
+	{
+		unindexedObjects.attach(engine);
+		ImmutableArray<Entity> entities = engine.getEntitiesFor(OBJECTS);
+		for(int i = 0; i < entities.size(); i++)
+		{
+			entityAdded(entities.get(i));
+		}
+		engine.addEntityListener(OBJECTS, this);
+	}
+	
+	/**
+	 * Stops following engine
+	 * 
+	 * @param engine
+	 */
+	public void detach(Engine engine)
+	{
+		unindexedObjects.detach(engine);
+		engine.removeEntityListener(this);
+		numEntities = 0;
+	}
+	
+	@Override
+	public void entityAdded(Entity entity)
+	{
+		if(FAMILY.matches(entity)) numEntities++;
+	}
+	
+	@Override
+	public void entityRemoved(Entity entity)
+	{
+		if(FAMILY.matches(entity)) numEntities--;
+	}
+	
+	/**
+	 * Draws every object overlapping view, lower layers first. Must be called between
+	 * batch.begin() and end()
+	 * 
+	 * @param batch
+	 * @param view
+	 */
+	public void render(SpriteBatch batch, Rectangle view)
+	{
+		for(int i = 0; i < layers.size; i++)
+		{
+			layers.get(i).clear();
+		}
+		numVisible = 0;
+		
+		Array<BroadPhase<AbstractGameObject>> broadPhases = broadPhaseIndex.getBroadPhases();
+		for(int i = 0; i < broadPhases.size; i++)
+		{
+			broadPhases.get(i).query(view, nearbyObjects);
+			for(int j = 0; j < nearbyObjects.size; j++)
+			{
+				AbstractGameObject obj = nearbyObjects.get(j);
+				if(FAMILY.matches(obj.entity)) addIfVisible(obj, view);
+			}
+		}
+		PartitionedArray<AbstractGameObject> objects = unindexedObjects.getObjects();
+		for(int i = 0; i < objects.getTotalSize(); i++)
+		{
+			addIfVisible(objects.get(i), view);
+		}
+		
+		for(int i = 0; i < layers.size; i++)
+		{
+			Array<AbstractGameObject> layer = layers.get(i);
+			for(int j = 0; j < layer.size; j++)
+			{
+				layer.get(j).render(batch);
+			}
+		}
+		numCulled = numEntities-numVisible;
+	}
+	
+	/**
+	 * Queues obj to be drawn in its layer if it overlaps view
+	 * 
+	 * @param obj
+	 * @param view
+	 */
+	private void addIfVisible(AbstractGameObject obj, Rectangle view)
+	{
+		if(!obj.getRenderBounds(renderBounds).overlaps(view)) return;
+		int layer = renderMapper.get(obj.entity).layer;
+		while(layers.size <= layer)
+		{
+			layers.add(new Array<AbstractGameObject>());
+		}
+		layers.get(layer).add(obj);
+		numVisible++;
+	}
+}
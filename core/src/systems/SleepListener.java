@@ -0,0 +1,27 @@
+package systems;
+import objects.AbstractGameObject;
+
+/**
+ * Anything that has to know when the level puts one of its objects to sleep or wakes
+ * it up again. Sleeping objects keep their entities in the engine, so systems skip
+ * them on their own instead of seeing them leave
+ *
+ * @author Raistlin Hess
+ *
+ */
+public interface SleepListener
+{
+	/**
+	 * Called after obj was put to sleep
+	 *
+	 * @param obj
+	 */
+	public void objectFellAsleep(AbstractGameObject obj);
+	
+	/**
+	 * Called after obj woke up and caught up on the time it slept
+	 *
+	 * @param obj
+	 */
+	public void objectWokeUp(AbstractGameObject obj);
+}
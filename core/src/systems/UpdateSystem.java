@@ -0,0 +1,29 @@
+package systems;
+import com.badlogic.ashley.core.Family;
+import components.ObjectComponent;
+import components.ParallelComponent;
+import components.UpdateComponent;
+
+/**
+ * Runs update(deltaTime) of every object that still does all of its own updating and
+ * has to do it on the calling thread
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public class UpdateSystem extends ObjectSystem
+{
+	public UpdateSystem(int priority)
+	{
+		super(Family.all(ObjectComponent.class, UpdateComponent.class).exclude(ParallelComponent.class).get(), priority);
+	}
+	
+	@Override
+	public void process(int from, int to)
+	{
+		for(int i = from; i < to; i++)
+		{
+			objects.get(i).update(deltaTime);
+		}
+	}
+}
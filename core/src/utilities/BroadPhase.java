@@ -0,0 +1,38 @@
+package utilities;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import objects.AbstractGameObject;
+
+/**
+ * A structure that finds the game objects near an area without visiting every object
+ * in the level. Used to find what to draw, what the player touches and what to wake up
+ *
+ * @author Raistlin Hess
+ *
+ */
+public interface BroadPhase<T extends AbstractGameObject>
+{
+	/**
+	 * Adds obj
+	 *
+	 * @param obj
+	 */
+	public void insert(T obj);
+
+	/**
+	 * Removes obj
+	 *
+	 * @param obj
+	 */
+	public void remove(T obj);
+
+	/**
+	 * Replaces the contents of out with the objects that may overlap area. Returns out
+	 * for convenience
+	 *
+	 * @param area
+	 * @param out
+	 * @return
+	 */
+	public <A extends Array<? super T>> A query(Rectangle area, A out);
+}
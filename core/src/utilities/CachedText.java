@@ -0,0 +1,100 @@
+package utilities;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * A line of GUI text made of a label and up to two numbers. The text is written into
+ * a reused StringBuilder and laid out again only when a number, the font or the
+ * font's color changes, so drawing the same value every frame allocates nothing
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class CachedText
+{
+	private final String prefix;
+	private final String infix;
+	private final int align;
+	private final StringBuilder text;
+	private final GlyphLayout layout;
+	private BitmapFont font;
+	private float colorBits;
+	private int value1;
+	private int value2;
+	private boolean valid;
+
+	/**
+	 * Text showing prefix followed by one number
+	 *
+	 * @param prefix
+	 * @param align one of the Align constants
+	 */
+	public CachedText(String prefix, int align)
+	{
+		this(prefix, null, align);
+	}
+
+	/**
+	 * Text showing prefix, the first number, infix and the second number
+	 *
+	 * @param prefix
+	 * @param infix
+	 * @param align one of the Align constants
+	 */
+	public CachedText(String prefix, String infix, int align)
+	{
+		this.prefix = prefix;
+		this.infix = infix;
+		this.align = align;
+		text = new StringBuilder();
+		layout = new GlyphLayout();
+		valid = false;
+	}
+
+	/**
+	 * Shows value, laying the text out again if anything changed
+	 *
+	 * @param font
+	 * @param value
+	 */
+	public void setValue(BitmapFont font, int value)
+	{
+		setValues(font, value, 0);
+	}
+
+	/**
+	 * Shows both values, laying the text out again if anything changed
+	 *
+	 * @param font
+	 * @param value1
+	 * @param value2
+	 */
+	public void setValues(BitmapFont font, int value1, int value2)
+	{
+		float bits = font.getColor().toFloatBits();
+		if(valid && this.font == font && colorBits == bits && this.value1 == value1 && this.value2 == value2) return;
+
+		this.font = font;
+		this.colorBits = bits;
+		this.value1 = value1;
+		this.value2 = value2;
+		text.setLength(0);
+		text.append(prefix).append(value1);
+		if(infix != null) text.append(infix).append(value2);
+		layout.setText(font, text, font.getColor(), 0, align, false);
+		valid = true;
+	}
+
+	/**
+	 * Draws the text at (x, y) with the font it was last laid out with
+	 *
+	 * @param batch
+	 * @param x
+	 * @param y
+	 */
+	public void draw(SpriteBatch batch, float x, float y)
+	{
+		if(valid) font.draw(batch, layout, x, y);
+	}
+}
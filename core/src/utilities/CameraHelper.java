@@ -19,6 +19,7 @@ public class CameraHelper
 	private float zoom;
 	private AbstractGameObject target;
 	private final float FOLLOW_SPEED = 4.0f;
+	private Vector2 targetPosition;
 	
 	/**
 	 * Sets the initial position and zooming factor
@@ -26,6 +27,7 @@ public class CameraHelper
 	public CameraHelper()
 	{
 		position = new Vector2();
+		targetPosition = new Vector2();
 		zoom = 1.0f;
 	}
 	
@@ -33,16 +35,27 @@ public class CameraHelper
 	 * If the camera has a target, it will update its position to match that of its target
 	 */
 	public void update(float deltaTime)
+	{
+		update(deltaTime, 1);
+	}
+	
+	/**
+	 * Moves the camera towards its target as it is drawn, alpha of the way from the
+	 * target's previous to its current simulated position
+	 * 
+	 * @param deltaTime
+	 * @param alpha
+	 */
+	public void update(float deltaTime, float alpha)
 	{
 		if(!hasTarget()) return;
 		
 		//Move cameraPosition's x to origin of target
-		Vector2 cameraPos = new Vector2();
-		cameraPos.x = target.position.x+target.origin.x;
-		cameraPos.y = target.position.y;
+		targetPosition.set(target.previousPosition).lerp(target.position, alpha);
+		targetPosition.x += target.origin.x;
 		
 		//Linear interpretation to smoothen camera movement
-		position.lerp(cameraPos, FOLLOW_SPEED*deltaTime);
+		position.lerp(targetPosition, FOLLOW_SPEED*deltaTime);
 		
 		//Prevent camera from moving down passed the water
 		position.y = Math.max(-1.0f, position.y);
@@ -14,6 +14,8 @@ public enum CharacterSkin
 	GRAY("Gray", 0.7f, 0.7f, 0.7f),
 	BROWN("Brown", 0.7f, 0.5f, 0.3f);
 	
+	//values() copies the array on every call
+	private static final CharacterSkin[] SKINS = values();
 	private String name;
 	private Color color = new Color();
 	
@@ -23,6 +25,16 @@ public enum CharacterSkin
 		color.set(r,g,b,1.0f);
 	}
 	
+	/**
+	 * Returns the skin at index without copying values()
+	 * 
+	 * @param index
+	 */
+	public static CharacterSkin get(int index)
+	{
+		return SKINS[index];
+	}
+	
 	/**
 	 * Returns the name variable of this object
 	 */
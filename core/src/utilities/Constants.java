@@ -39,6 +39,18 @@ public class Constants
 	//Location of description file for texture atlas
 	public static final String TEXTURE_ATLAS_OBJECTS = "images/canyonbunny.pack.atlas";
 	
+	//Location of the dust particle effect
+	public static final String PARTICLES_DUST = "particles/dust.pfx";
+	
+	//Number of free effects each particle effect pool starts with
+	public static final int PARTICLES_POOL_SIZE = 4;
+	
+	//Most free effects each particle effect pool keeps
+	public static final int PARTICLES_POOL_MAX = 16;
+	
+	//Milliseconds per frame the loading screen spends loading assets
+	public static final int LOADING_BUDGET_MILLIS = 12;
+	
 	//Location of image file fro Level 1
 	public static final String LEVEL_01 = "levels/level-01.png";
 	
@@ -51,9 +63,93 @@ public class Constants
 	//Number of carrots to spawn
 	public static final int CARROTS_SPAWN_MAX = 100;
 	
+	//Number of carrots and bodies kept ready for spawning
+	public static final int CARROTS_POOL_SIZE = CARROTS_SPAWN_MAX;
+	
 	//Spawn radius for carrots
 	public static final float CARROTS_SPAWN_RADIUS = 3.5f;
 	
 	//Delay after game finished
 	public static final float TIME_DELAY_GAME_FINISHED = 6;
+	
+	//Run the simulation in fixed steps instead of once per rendered frame
+	public static final boolean FIXED_TIMESTEP = true;
+	
+	//Simulation steps per second when using a fixed timestep
+	public static final int SIMULATION_TICK_RATE = 60;
+	
+	//Most simulation steps run in a single frame before time is dropped
+	public static final int SIMULATION_MAX_SUBSTEPS = 5;
+	
+	//Width in level columns of each chunk the level is streamed in
+	public static final int LEVEL_CHUNK_WIDTH = 16;
+	
+	//Distance in meters around the camera and player that chunks are kept loaded
+	public static final float LEVEL_STREAMING_DISTANCE = 20.0f;
+	
+	//Distance in meters beyond the view that rocks, coins and feathers are put to sleep
+	public static final float LEVEL_ACTIVITY_DISTANCE = 4.0f;
+	
+	//Extra meters around the camera's view that objects are still drawn in
+	public static final float CULLING_MARGIN = 0.5f;
+	
+	//Draw the mountains from geometry uploaded once per level instead of the SpriteBatch
+	public static final boolean STATIC_GEOMETRY_CACHE = true;
+	
+	//Keep the GUI in a FrameBuffer and only redraw it when something on it changes
+	public static final boolean HUD_FRAMEBUFFER_CACHE = true;
+	
+	//Number of frames the profiler takes percentiles over
+	public static final int PROFILER_WINDOW_FRAMES = 600;
+	
+	//Number of frames between updates of the profiler overlay
+	public static final int PROFILER_SUMMARY_INTERVAL = 30;
+	
+	//Start of the name of the profiler's CSV files
+	public static final String PROFILER_CSV_PREFIX = "frame-profile-";
+	
+	//Width in level columns of each cell in the collision grid
+	public static final float SPATIAL_GRID_CELL_WIDTH = 4.0f;
+	
+	//Priority of the level's UpdateSystem, lower priorities run first
+	public static final int PRIORITY_UPDATE_SYSTEM = 0;
+	
+	//Priority of the level's ParallelUpdateSystem
+	public static final int PRIORITY_PARALLEL_UPDATE_SYSTEM = 1;
+	
+	//Priority of the level's KinematicBodySystem
+	public static final int PRIORITY_KINEMATIC_BODY_SYSTEM = 2;
+	
+	//Priority of the level's PhysicsSyncSystem
+	public static final int PRIORITY_PHYSICS_SYNC_SYSTEM = 3;
+	
+	//Priority of the level's AnimationSystem
+	public static final int PRIORITY_ANIMATION_SYSTEM = 4;
+	
+	//Render layer of the goal, lower layers are drawn first
+	public static final int RENDER_LAYER_GOAL = 0;
+	
+	//Render layer of the rocks
+	public static final int RENDER_LAYER_ROCKS = 1;
+	
+	//Render layer of the gold coins
+	public static final int RENDER_LAYER_GOLD_COINS = 2;
+	
+	//Render layer of the feathers
+	public static final int RENDER_LAYER_FEATHERS = 3;
+	
+	//Render layer of the carrots
+	public static final int RENDER_LAYER_CARROTS = 4;
+	
+	//Render layer of the player
+	public static final int RENDER_LAYER_PLAYER = 5;
+	
+	//Threads an update of independent objects is split over, including the calling thread
+	public static final int PARALLEL_UPDATE_THREADS = Runtime.getRuntime().availableProcessors();
+	
+	//Fewest objects in an update before it is split over threads
+	public static final int PARALLEL_UPDATE_THRESHOLD = 2048;
+	
+	//Highest rock edge the bunny walks onto instead of bumping into
+	public static final float ROCK_STEP_HEIGHT = 0.25f;
 }
@@ -0,0 +1,317 @@
+package utilities;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Times the phases of every frame in nanoseconds. The last frames of each phase are
+ * kept in a rolling window that p50/p95/p99 are taken from for the overlay, and every
+ * frame can be written to a CSV file to compare builds offline. Nothing is timed
+ * unless the overlay or the CSV recording is enabled in the options
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class FrameProfiler implements SettingsListener
+{
+	public static final String TAG = FrameProfiler.class.getName();
+
+	/**
+	 * The timed parts of a frame. Phases that run more than once per frame, like the
+	 * simulation steps of a fixed timestep, are added up
+	 */
+	public enum Phase
+	{
+		INPUT("Input"),
+		LEVEL_UPDATE("Level"),
+		COLLISIONS("Collisions"),
+		PHYSICS("Physics"),
+		CAMERA("Camera"),
+		RENDER_WORLD("Render world"),
+		RENDER_GUI("Render GUI");
+
+		private final String label;
+
+		private Phase(String label)
+		{
+			this.label = label;
+		}
+
+		public String getLabel()
+		{
+			return label;
+		}
+	}
+
+	private static final Phase[] PHASES = Phase.values();
+	//Created after PHASES, which the constructor needs
+	public static final FrameProfiler instance = new FrameProfiler();
+	private boolean enabled;
+	private boolean recording;
+	//Time of the current frame
+	private long[] phaseStart;
+	private long[] phaseTotal;
+	private long frameStart;
+	//Rolling window, the last entry is the whole frame
+	private long[][] window;
+	private long[] sorted;
+	private int windowIndex;
+	private int windowCount;
+	private long frameNumber;
+	//Totals since the last reset
+	private long[] phaseSum;
+	private long framesTimed;
+	//Overlay text, rebuilt every few frames
+	private String[] summary;
+	private int framesUntilSummary;
+	//CSV output
+	private Writer csvWriter;
+	private StringBuilder csvLine;
+
+	//Singleton - Prevent instantiation from other classes
+	private FrameProfiler()
+	{
+		phaseStart = new long[PHASES.length];
+		phaseTotal = new long[PHASES.length];
+		phaseSum = new long[PHASES.length];
+		window = new long[PHASES.length+1][Constants.PROFILER_WINDOW_FRAMES];
+		sorted = new long[Constants.PROFILER_WINDOW_FRAMES];
+		summary = new String[PHASES.length+2];
+		Arrays.fill(summary, "");
+		csvLine = new StringBuilder();
+	}
+
+	/**
+	 * Turns timing and CSV recording on or off to match the preferences. A new CSV
+	 * file is started every time recording is turned on
+	 *
+	 * @param prefs
+	 */
+	@Override
+	public void onSettingsUpdated(GamePreferences prefs)
+	{
+		setEnabled(prefs.showProfiler || prefs.recordProfilerCsv);
+		if(prefs.recordProfilerCsv && !recording) startRecording();
+		else if(!prefs.recordProfilerCsv && recording) stopRecording();
+	}
+	
+	/**
+	 * Turns timing on or off without touching the CSV recording
+	 *
+	 * @param enabled
+	 */
+	public void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+		if(!enabled) reset();
+	}
+
+	/**
+	 * Returns true if frames are being timed
+	 *
+	 * @return
+	 */
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	/**
+	 * Forgets every timed frame
+	 */
+	public void reset()
+	{
+		Arrays.fill(phaseTotal, 0);
+		Arrays.fill(phaseSum, 0);
+		framesTimed = 0;
+		windowIndex = 0;
+		windowCount = 0;
+		frameStart = 0;
+		Arrays.fill(summary, "");
+		framesUntilSummary = 0;
+	}
+
+	/**
+	 * Starts timing phase
+	 *
+	 * @param phase
+	 */
+	public void begin(Phase phase)
+	{
+		if(!enabled) return;
+		long now = TimeUtils.nanoTime();
+		if(frameStart == 0) frameStart = now;
+		phaseStart[phase.ordinal()] = now;
+	}
+
+	/**
+	 * Stops timing phase and adds the time since begin(phase) to the current frame
+	 *
+	 * @param phase
+	 */
+	public void end(Phase phase)
+	{
+		if(!enabled) return;
+		phaseTotal[phase.ordinal()] += TimeUtils.nanoTime()-phaseStart[phase.ordinal()];
+	}
+
+	/**
+	 * Moves the times of the current frame into the rolling window and the CSV file,
+	 * then starts a new frame
+	 */
+	public void endFrame()
+	{
+		if(!enabled) return;
+		long now = TimeUtils.nanoTime();
+		long frameTime = frameStart == 0 ? 0 : now-frameStart;
+		frameStart = now;
+		frameNumber++;
+
+		for(int i = 0; i < PHASES.length; i++)
+		{
+			window[i][windowIndex] = phaseTotal[i];
+			phaseSum[i] += phaseTotal[i];
+		}
+		framesTimed++;
+		window[PHASES.length][windowIndex] = frameTime;
+		windowIndex = (windowIndex+1)%Constants.PROFILER_WINDOW_FRAMES;
+		windowCount = Math.min(windowCount+1, Constants.PROFILER_WINDOW_FRAMES);
+
+		if(recording) writeCsvLine(frameTime);
+		Arrays.fill(phaseTotal, 0);
+
+		//Sorting the window is too slow to do every frame
+		if(--framesUntilSummary <= 0)
+		{
+			framesUntilSummary = Constants.PROFILER_SUMMARY_INTERVAL;
+			updateSummary();
+		}
+	}
+
+	/**
+	 * Returns the overlay text: a header line, one line per phase and one for the
+	 * whole frame, in microseconds
+	 *
+	 * @return
+	 */
+	public String[] getSummary()
+	{
+		return summary;
+	}
+
+	/**
+	 * Returns the average time per frame spent in phase since the last reset, in
+	 * nanoseconds
+	 *
+	 * @param phase
+	 * @return
+	 */
+	public long getMeanNanos(Phase phase)
+	{
+		return framesTimed == 0 ? 0 : phaseSum[phase.ordinal()]/framesTimed;
+	}
+
+	/**
+	 * Takes p50, p95 and p99 of every phase in the rolling window
+	 */
+	private void updateSummary()
+	{
+		summary[0] = "Phase  p50 / p95 / p99 us ("+windowCount+" frames)";
+		for(int i = 0; i <= PHASES.length; i++)
+		{
+			System.arraycopy(window[i], 0, sorted, 0, windowCount);
+			Arrays.sort(sorted, 0, windowCount);
+			String label = i < PHASES.length ? PHASES[i].getLabel() : "Frame";
+			summary[i+1] = label+"  "+percentile(0.50f)+" / "+percentile(0.95f)+" / "+percentile(0.99f);
+		}
+	}
+
+	/**
+	 * Returns the given percentile of the sorted window in microseconds
+	 *
+	 * @param p
+	 * @return
+	 */
+	private long percentile(float p)
+	{
+		if(windowCount == 0) return 0;
+		int index = Math.min(windowCount-1, (int)Math.ceil(p*windowCount)-1);
+		return sorted[Math.max(0, index)]/1000;
+	}
+
+	/**
+	 * Opens a new CSV file named after the current time and writes the header
+	 */
+	private void startRecording()
+	{
+		FileHandle file = Gdx.files.local(Constants.PROFILER_CSV_PREFIX+TimeUtils.millis()+".csv");
+		csvWriter = file.writer(false, "UTF-8");
+		csvLine.setLength(0);
+		csvLine.append("frame");
+		for(Phase phase: PHASES)
+		{
+			csvLine.append(',').append(phase.name().toLowerCase());
+		}
+		csvLine.append(",frame_total\n");
+		recording = write(csvLine);
+		if(recording) Gdx.app.log(TAG, "Recording frame times to '"+file.path()+"'");
+	}
+
+	/**
+	 * Writes the phase times of the current frame in nanoseconds
+	 *
+	 * @param frameTime
+	 */
+	private void writeCsvLine(long frameTime)
+	{
+		csvLine.setLength(0);
+		csvLine.append(frameNumber);
+		for(int i = 0; i < PHASES.length; i++)
+		{
+			csvLine.append(',').append(phaseTotal[i]);
+		}
+		csvLine.append(',').append(frameTime).append('\n');
+		if(!write(csvLine)) stopRecording();
+	}
+
+	/**
+	 * Appends text to the CSV file. Returns false if it couldn't be written
+	 *
+	 * @param text
+	 * @return
+	 */
+	private boolean write(CharSequence text)
+	{
+		try
+		{
+			csvWriter.append(text);
+			return true;
+		}
+		catch(IOException e)
+		{
+			Gdx.app.error(TAG, "Couldn't write frame times", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Closes the CSV file
+	 */
+	public void stopRecording()
+	{
+		if(csvWriter == null) return;
+		try
+		{
+			csvWriter.close();
+		}
+		catch(IOException e)
+		{
+			Gdx.app.error(TAG, "Couldn't close frame times file", e);
+		}
+		csvWriter = null;
+		recording = false;
+	}
+}
@@ -2,6 +2,7 @@ package utilities;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Preferences;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
 
 /**
  * Handles loading and saving changes to a preference file
@@ -19,7 +20,11 @@ public class GamePreferences
 	public float volMusic;
 	public int charSkin;
 	public boolean showFpsCounter;
+	public boolean showProfiler;
+	public boolean recordProfilerCsv;
+	private CharacterSkin characterSkin;
 	private Preferences prefs;
+	private Array<SettingsListener> listeners;
 	
 	/**
 	 * Singleton - Prevent instantiation from other classes
@@ -27,6 +32,48 @@ public class GamePreferences
 	private GamePreferences()
 	{
 		prefs = Gdx.app.getPreferences(Constants.PREFERENCES);
+		listeners = new Array<SettingsListener>();
+		characterSkin = CharacterSkin.get(0);
+	}
+	
+	/**
+	 * Adds a listener that is told every time the preferences are loaded or saved
+	 * 
+	 * @param listener
+	 */
+	public void addListener(SettingsListener listener)
+	{
+		if(!listeners.contains(listener, true)) listeners.add(listener);
+	}
+	
+	/**
+	 * Stops telling listener about changes
+	 * 
+	 * @param listener
+	 */
+	public void removeListener(SettingsListener listener)
+	{
+		listeners.removeValue(listener, true);
+	}
+	
+	/**
+	 * Returns the skin charSkin pointed to when the preferences were last loaded or saved
+	 */
+	public CharacterSkin getCharacterSkin()
+	{
+		return characterSkin;
+	}
+	
+	/**
+	 * Resolves the skin once and tells every listener that the settings changed
+	 */
+	private void onSettingsUpdated()
+	{
+		characterSkin = CharacterSkin.get(charSkin);
+		for(int i = 0; i < listeners.size; i++)
+		{
+			listeners.get(i).onSettingsUpdated(this);
+		}
 	}
 	
 	/**
@@ -40,6 +87,9 @@ public class GamePreferences
 		volMusic = MathUtils.clamp(prefs.getFloat("volSound", 0.5f), 0.0f, 1.0f);
 		charSkin = MathUtils.clamp(prefs.getInteger("charSkin", 0), 0, 2);
 		showFpsCounter = prefs.getBoolean("showFpsCounter", false);
+		showProfiler = prefs.getBoolean("showProfiler", false);
+		recordProfilerCsv = prefs.getBoolean("recordProfilerCsv", false);
+		onSettingsUpdated();
 	}
 	
 	/**
@@ -53,6 +103,9 @@ public class GamePreferences
 		prefs.putFloat("volMusic", volMusic);
 		prefs.putInteger("charSkin", charSkin);
 		prefs.putBoolean("showFpsCounter", showFpsCounter);
+		prefs.putBoolean("showProfiler", showProfiler);
+		prefs.putBoolean("recordProfilerCsv", recordProfilerCsv);
 		prefs.flush();
+		onSettingsUpdated();
 	}
 }
@@ -0,0 +1,42 @@
+package utilities;
+import com.badlogic.gdx.math.RandomXS128;
+
+/**
+ * This class hands out the random numbers that change how a level plays out.
+ * libGDX's hashed collections, including the ones Box2D and Ashley use internally,
+ * draw from MathUtils.random whenever keys collide, and their keys are memory
+ * addresses and identity hash codes. Keeping gameplay on its own generator means
+ * the same seed always gives the same level
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class GameRandom
+{
+	public static final GameRandom instance = new GameRandom();
+	private RandomXS128 random;
+
+	//Create singleton instance
+	private GameRandom()
+	{
+		random = new RandomXS128();
+	}
+
+	/**
+	 * Restarts the sequence of random numbers
+	 *
+	 * @param seed
+	 */
+	public void setSeed(long seed)
+	{
+		random.setSeed(seed);
+	}
+
+	/**
+	 * Returns a random number between start (inclusive) and end (exclusive)
+	 */
+	public float random(float start, float end)
+	{
+		return start+random.nextFloat()*(end-start);
+	}
+}
@@ -0,0 +1,143 @@
+package utilities;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * An array split into active items at the front and inactive items behind them. Only
+ * the first size items are active, so loops over them never see the inactive ones.
+ * Every item's index is kept in a map, so activating, deactivating and removing an
+ * item is a swap instead of a search, and activateAll() turns everything back on
+ * without moving anything. The order of the items is not kept
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class PartitionedArray<T>
+{
+	private Array<T> items;
+	private ObjectIntMap<T> indices;
+	//Number of active items, all of them before the inactive ones
+	public int size;
+
+	public PartitionedArray()
+	{
+		items = new Array<T>(false, 16);
+		indices = new ObjectIntMap<T>();
+		size = 0;
+	}
+
+	/**
+	 * Returns the item at index. Indices below size are active, indices from size
+	 * up to getTotalSize() are inactive
+	 *
+	 * @param index
+	 * @return
+	 */
+	public T get(int index)
+	{
+		return items.get(index);
+	}
+
+	/**
+	 * Returns the number of active and inactive items
+	 */
+	public int getTotalSize()
+	{
+		return items.size;
+	}
+
+	/**
+	 * Adds item as active or inactive
+	 *
+	 * @param item
+	 * @param active
+	 */
+	public void add(T item, boolean active)
+	{
+		items.add(item);
+		indices.put(item, items.size-1);
+		if(active) swap(size++, items.size-1);
+	}
+
+	/**
+	 * Moves item in front of the inactive items. Returns false if it wasn't inactive
+	 *
+	 * @param item
+	 * @return
+	 */
+	public boolean activate(T item)
+	{
+		int index = indices.get(item, -1);
+		if(index < size) return false;
+		swap(index, size++);
+		return true;
+	}
+
+	/**
+	 * Moves item behind the active items. Returns false if it wasn't active
+	 *
+	 * @param item
+	 * @return
+	 */
+	public boolean deactivate(T item)
+	{
+		int index = indices.get(item, -1);
+		if(index < 0 || index >= size) return false;
+		swap(index, --size);
+		return true;
+	}
+
+	/**
+	 * Removes item, active or not. Returns false if it wasn't in the array
+	 *
+	 * @param item
+	 * @return
+	 */
+	public boolean remove(T item)
+	{
+		int index = indices.get(item, -1);
+		if(index < 0) return false;
+		if(index < size)
+		{
+			//Keep the active items together
+			swap(index, --size);
+			index = size;
+		}
+		swap(index, items.size-1);
+		items.pop();
+		indices.remove(item, -1);
+		return true;
+	}
+
+	/**
+	 * Makes every item active again
+	 */
+	public void activateAll()
+	{
+		size = items.size;
+	}
+
+	/**
+	 * Removes every item
+	 */
+	public void clear()
+	{
+		items.clear();
+		indices.clear();
+		size = 0;
+	}
+
+	/**
+	 * Swaps the items at the two indices and updates their stored indices
+	 *
+	 * @param first
+	 * @param second
+	 */
+	private void swap(int first, int second)
+	{
+		if(first == second) return;
+		items.swap(first, second);
+		indices.put(items.get(first), first);
+		indices.put(items.get(second), second);
+	}
+}
@@ -0,0 +1,247 @@
+package utilities;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * This class splits the update of many independent objects into ranges and runs them
+ * on a set of worker threads. The calling thread takes a range as well, and run only
+ * returns once every range is done, so each call is a barrier: nothing after it, like
+ * the collision test or the Box2D step, sees a half updated phase. The barrier is a
+ * phase counter and a count of busy workers guarded by one lock, so splitting a phase
+ * allocates nothing. Phases with fewer objects than PARALLEL_UPDATE_THRESHOLD run on
+ * the calling thread
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class PhaseScheduler implements Disposable
+{
+	public static final String TAG = PhaseScheduler.class.getName();
+	public static final PhaseScheduler instance = new PhaseScheduler();
+	private int threads;
+	private Worker[] workers;
+	private final Object lock = new Object();
+	//Current phase, only changed while holding lock
+	private int phase;
+	private RangeTask task;
+	private int count;
+	private int busyWorkers;
+	private Throwable error;
+
+	/**
+	 * Work on the objects from index from up to, but not including, index to. Ranges
+	 * of the same phase run at the same time and must not touch each other's objects
+	 */
+	public interface RangeTask
+	{
+		public void process(int from, int to);
+	}
+
+	/**
+	 * Worker thread that runs the range at its index of every phase until it is
+	 * stopped. It is a daemon, so it never keeps the game running
+	 */
+	private class Worker extends Thread
+	{
+		private int index;
+		private int lastPhase;
+		private boolean stopped;
+
+		public Worker(int index)
+		{
+			super("phase-worker-"+index);
+			this.index = index;
+			lastPhase = phase;
+			setDaemon(true);
+		}
+
+		@Override
+		public void run()
+		{
+			while(true)
+			{
+				RangeTask task;
+				int count;
+				synchronized(lock)
+				{
+					while(phase == lastPhase && !stopped)
+					{
+						try
+						{
+							lock.wait();
+						}
+						catch(InterruptedException e)
+						{
+							//Only dispose stops a worker
+						}
+					}
+					if(stopped) return;
+					lastPhase = phase;
+					task = PhaseScheduler.this.task;
+					count = PhaseScheduler.this.count;
+				}
+
+				Throwable failure = null;
+				try
+				{
+					task.process(rangeStart(count, index), rangeStart(count, index+1));
+				}
+				catch(Throwable t)
+				{
+					failure = t;
+				}
+
+				synchronized(lock)
+				{
+					if(failure != null && error == null) error = failure;
+					if(--busyWorkers == 0) lock.notifyAll();
+				}
+			}
+		}
+	}
+
+	//Create singleton instance
+	private PhaseScheduler()
+	{
+		threads = Constants.PARALLEL_UPDATE_THREADS;
+	}
+
+	/**
+	 * Sets how many threads a phase is split over, including the calling thread. 1
+	 * runs every phase on the calling thread
+	 *
+	 * @param threads
+	 */
+	public void setThreads(int threads)
+	{
+		dispose();
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Returns how many threads a phase is split over, including the calling thread
+	 *
+	 * @return
+	 */
+	public int getThreads()
+	{
+		return threads;
+	}
+
+	/**
+	 * Starts a worker for every range after the first one
+	 */
+	private void start()
+	{
+		workers = new Worker[threads-1];
+		synchronized(lock)
+		{
+			for(int i = 0; i < workers.length; i++)
+			{
+				workers[i] = new Worker(i+1);
+			}
+		}
+		for(int i = 0; i < workers.length; i++)
+		{
+			workers[i].start();
+		}
+	}
+
+	/**
+	 * Returns the first index of range out of threads ranges over count objects
+	 *
+	 * @param count
+	 * @param range
+	 * @return
+	 */
+	private int rangeStart(int count, int range)
+	{
+		return (int)((long)count*range/threads);
+	}
+
+	/**
+	 * Runs task over the objects from 0 up to count and returns once all of them are
+	 * done. Below PARALLEL_UPDATE_THRESHOLD objects, or with a single thread, task
+	 * runs on the calling thread in one range
+	 *
+	 * @param count
+	 * @param task
+	 */
+	public void run(int count, RangeTask task)
+	{
+		if(threads <= 1 || count < Constants.PARALLEL_UPDATE_THRESHOLD)
+		{
+			task.process(0, count);
+			return;
+		}
+		if(workers == null) start();
+
+		//The workers take the ranges after the first one, the calling thread the first
+		synchronized(lock)
+		{
+			this.task = task;
+			this.count = count;
+			error = null;
+			busyWorkers = workers.length;
+			phase++;
+			lock.notifyAll();
+		}
+		try
+		{
+			task.process(0, rangeStart(count, 1));
+		}
+		finally
+		{
+			awaitWorkers();
+		}
+
+		if(error != null)
+		{
+			Throwable failure = error;
+			error = null;
+			throw new GdxRuntimeException("Parallel update failed", failure);
+		}
+	}
+
+	/**
+	 * Waits for every worker of the current phase, even if this thread is interrupted
+	 */
+	private void awaitWorkers()
+	{
+		boolean interrupted = false;
+		synchronized(lock)
+		{
+			while(busyWorkers > 0)
+			{
+				try
+				{
+					lock.wait();
+				}
+				catch(InterruptedException e)
+				{
+					interrupted = true;
+				}
+			}
+			task = null;
+		}
+		if(interrupted) Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Stops the worker threads. They are started again by the next phase that needs them
+	 */
+	@Override
+	public void dispose()
+	{
+		if(workers == null) return;
+		synchronized(lock)
+		{
+			for(int i = 0; i < workers.length; i++)
+			{
+				workers[i].stopped = true;
+			}
+			lock.notifyAll();
+		}
+		workers = null;
+	}
+}
@@ -0,0 +1,18 @@
+package utilities;
+
+/**
+ * Implemented by anything that keeps a copy of a setting and has to hear about it when
+ * the preferences are loaded or saved
+ * 
+ * @author Raistlin Hess
+ *
+ */
+public interface SettingsListener
+{
+	/**
+	 * Called after the preferences were loaded or saved
+	 * 
+	 * @param prefs
+	 */
+	public void onSettingsUpdated(GamePreferences prefs);
+}
@@ -0,0 +1,129 @@
+package utilities;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import objects.AbstractGameObject;
+
+/**
+ * This class is a uniform grid that sorts game objects into buckets based on the
+ * level's pixel columns. It is used as a broad phase for collision detection so only
+ * objects near an area have to be tested instead of every object in the level
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class SpatialHashGrid<T extends AbstractGameObject> implements BroadPhase<T>
+{
+	private final float cellWidth;
+	private Array<Array<T>> cells;
+
+	/**
+	 * Creates enough cells of width cellWidth to cover levelWidth columns
+	 *
+	 * @param levelWidth
+	 * @param cellWidth
+	 */
+	public SpatialHashGrid(int levelWidth, float cellWidth)
+	{
+		this.cellWidth = cellWidth;
+		int numCells = Math.max(1, MathUtils.ceil(levelWidth/cellWidth));
+		cells = new Array<Array<T>>(numCells);
+		for(int i = 0; i < numCells; i++)
+		{
+			cells.add(null);
+		}
+	}
+
+	/**
+	 * Returns the index of the cell containing the x coordinate. Anything
+	 * outside of the level is placed in the first or last cell
+	 *
+	 * @param x
+	 * @return
+	 */
+	private int cellIndex(float x)
+	{
+		return MathUtils.clamp(MathUtils.floor(x/cellWidth), 0, cells.size-1);
+	}
+
+	/**
+	 * Adds obj to every cell its bounding box overlaps
+	 *
+	 * @param obj
+	 */
+	@Override
+	public void insert(T obj)
+	{
+		int first = cellIndex(obj.position.x+obj.bounds.x);
+		int last = cellIndex(obj.position.x+obj.bounds.x+obj.bounds.width);
+		for(int i = first; i <= last; i++)
+		{
+			Array<T> cell = cells.get(i);
+			if(cell == null)
+			{
+				cell = new Array<T>(true, 4);
+				cells.set(i, cell);
+			}
+			cell.add(obj);
+		}
+	}
+
+	/**
+	 * Removes obj from every cell its bounding box overlaps
+	 *
+	 * @param obj
+	 */
+	@Override
+	public void remove(T obj)
+	{
+		int first = cellIndex(obj.position.x+obj.bounds.x);
+		int last = cellIndex(obj.position.x+obj.bounds.x+obj.bounds.width);
+		for(int i = first; i <= last; i++)
+		{
+			Array<T> cell = cells.get(i);
+			if(cell != null) cell.removeValue(obj, true);
+		}
+	}
+
+	/**
+	 * Adds every object stored in the cells that area overlaps to out. An object spanning
+	 * several cells is only added from the first of its cells inside area, so it is
+	 * added once without searching out. Returns out for convenience
+	 *
+	 * @param area
+	 * @param out
+	 * @return
+	 */
+	@Override
+	public <A extends Array<? super T>> A query(Rectangle area, A out)
+	{
+		out.clear();
+		int first = cellIndex(area.x);
+		int last = cellIndex(area.x+area.width);
+		for(int i = first; i <= last; i++)
+		{
+			Array<T> cell = cells.get(i);
+			if(cell == null) continue;
+			for(int j = 0; j < cell.size; j++)
+			{
+				T obj = cell.get(j);
+				//Already added from an earlier cell
+				if(i > first && cellIndex(obj.position.x+obj.bounds.x) < i) continue;
+				out.add(obj);
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Empties every cell in the grid
+	 */
+	public void clear()
+	{
+		for(int i = 0; i < cells.size; i++)
+		{
+			Array<T> cell = cells.get(i);
+			if(cell != null) cell.clear();
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package utilities;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import objects.AbstractGameObject;
+
+/**
+ * This class keeps game objects sorted by the left edge of their bounding box. It is
+ * used as a collision broad phase for objects that never move along x, like the rocks.
+ * A query is two binary searches: everything that starts before the right side of the
+ * area, and no further left than the widest object could reach. Objects are mostly
+ * added in the order the level is scanned in, so inserting is usually an append
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class SweepAndPrune<T extends AbstractGameObject> implements BroadPhase<T>
+{
+	private Array<T> objects;
+	//Widest object ever inserted, so a query knows how far left to look
+	private float maxWidth;
+
+	public SweepAndPrune()
+	{
+		objects = new Array<T>(true, 64);
+		maxWidth = 0;
+	}
+
+	/**
+	 * Returns the left edge of obj's bounding box
+	 *
+	 * @param obj
+	 * @return
+	 */
+	private static float minX(AbstractGameObject obj)
+	{
+		return obj.position.x+obj.bounds.x;
+	}
+
+	/**
+	 * Returns the index of the first object whose left edge is greater than x, or
+	 * the number of objects if there is none
+	 *
+	 * @param x
+	 * @return
+	 */
+	private int upperBound(float x)
+	{
+		int low = 0;
+		int high = objects.size;
+		while(low < high)
+		{
+			int mid = (low+high) >>> 1;
+			if(minX(objects.get(mid)) <= x) low = mid+1;
+			else high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the index of the first object whose left edge is at least x, or
+	 * the number of objects if there is none
+	 *
+	 * @param x
+	 * @return
+	 */
+	private int lowerBound(float x)
+	{
+		int low = 0;
+		int high = objects.size;
+		while(low < high)
+		{
+			int mid = (low+high) >>> 1;
+			if(minX(objects.get(mid)) < x) low = mid+1;
+			else high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Adds obj in order of its left edge. obj must not move along x while it is stored
+	 *
+	 * @param obj
+	 */
+	@Override
+	public void insert(T obj)
+	{
+		float x = minX(obj);
+		maxWidth = Math.max(maxWidth, obj.bounds.width);
+		if(objects.size == 0 || minX(objects.peek()) <= x)
+		{
+			objects.add(obj);
+		}
+		else
+		{
+			objects.insert(upperBound(x), obj);
+		}
+	}
+
+	/**
+	 * Removes obj
+	 *
+	 * @param obj
+	 */
+	@Override
+	public void remove(T obj)
+	{
+		float x = minX(obj);
+		for(int i = lowerBound(x); i < objects.size && minX(objects.get(i)) == x; i++)
+		{
+			if(objects.get(i) == obj)
+			{
+				objects.removeIndex(i);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Adds every object whose x-extent overlaps the x-extent of area to out, from left
+	 * to right. Returns out for convenience
+	 *
+	 * @param area
+	 * @param out
+	 * @return
+	 */
+	@Override
+	public <A extends Array<? super T>> A query(Rectangle area, A out)
+	{
+		out.clear();
+		int first = lowerBound(area.x-maxWidth);
+		int last = upperBound(area.x+area.width);
+		for(int i = first; i < last; i++)
+		{
+			T obj = objects.get(i);
+			if(minX(obj)+obj.bounds.width >= area.x) out.add(obj);
+		}
+		return out;
+	}
+
+	/**
+	 * Removes every object
+	 */
+	public void clear()
+	{
+		objects.clear();
+		maxWidth = 0;
+	}
+}
@@ -0,0 +1,157 @@
+package com.hess.assignment1.desktop;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import game.Level;
+import game.Level.BLOCK_TYPE;
+
+/**
+ * Turns level images into the compiled level format read by Level. The image is
+ * scanned the same way Level scans it at runtime, but rocks are stored as spans
+ * and every other object as an entry in an object table
+ *
+ * Layout (big endian):
+ * int magic, int version, int width, int height,
+ * int rock count, rock count * (int x, short y, int length),
+ * int object count, object count * (byte BLOCK_TYPE ordinal, int x, short y)
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class LevelCompiler
+{
+	/**
+	 * Compiles every .png level in the directories or files given as arguments
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		for(String arg: args)
+		{
+			File file = new File(arg);
+			File[] levels = file.isDirectory() ? file.listFiles() : new File[]{file};
+			for(File level: levels)
+			{
+				if(level.getName().endsWith(".png"))
+				{
+					compile(level, new File(Level.getCompiledFilename(level.getPath())));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Scans the level image input and writes the compiled level to output
+	 *
+	 * @param input
+	 * @param output
+	 * @throws IOException
+	 */
+	public static void compile(File input, File output) throws IOException
+	{
+		BufferedImage image = ImageIO.read(input);
+		if(image == null) throw new IOException("Can't read level image '"+input+"'");
+		int width = image.getWidth();
+		int height = image.getHeight();
+
+		ByteArrayOutputStream rockBytes = new ByteArrayOutputStream();
+		DataOutputStream rockSpans = new DataOutputStream(rockBytes);
+		ByteArrayOutputStream objectBytes = new ByteArrayOutputStream();
+		DataOutputStream objects = new DataOutputStream(objectBytes);
+		int numRocks = 0;
+		int numObjects = 0;
+
+		//Scan pixels from top-left to bottom-right, the same way Level does
+		int lastPixel = -1;
+		int spanX = 0;
+		int spanY = 0;
+		int spanLength = 0;
+		for(int pixelY = 0; pixelY < height; pixelY++)
+		{
+			for(int pixelX = 0; pixelX < width; pixelX++)
+			{
+				//Convert ARGB to the RGBA value Pixmap.getPixel returns
+				int argb = image.getRGB(pixelX, pixelY);
+				int currentPixel = (argb << 8) | (argb >>> 24);
+
+				if(BLOCK_TYPE.EMPTY.sameColor(currentPixel));
+
+				else if(BLOCK_TYPE.ROCK.sameColor(currentPixel))
+				{
+					if(lastPixel != currentPixel)
+					{
+						if(spanLength > 0)
+						{
+							writeRockSpan(rockSpans, spanX, spanY, spanLength);
+							numRocks++;
+						}
+						spanX = pixelX;
+						spanY = pixelY;
+						spanLength = 1;
+					}
+					else
+					{
+						spanLength++;
+					}
+				}
+
+				else
+				{
+					BLOCK_TYPE type = null;
+					for(BLOCK_TYPE candidate: BLOCK_TYPE.values())
+					{
+						if(candidate.sameColor(currentPixel)) type = candidate;
+					}
+
+					if(type != null)
+					{
+						objects.writeByte(type.ordinal());
+						objects.writeInt(pixelX);
+						objects.writeShort(pixelY);
+						numObjects++;
+					}
+					else
+					{
+						System.err.println("Unknown object at x<"+pixelX+"> y<"+pixelY+"> in '"+input+"'");
+					}
+				}
+				lastPixel = currentPixel;
+			}
+		}
+		if(spanLength > 0)
+		{
+			writeRockSpan(rockSpans, spanX, spanY, spanLength);
+			numRocks++;
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output)));
+		try
+		{
+			out.writeInt(Level.COMPILED_LEVEL_MAGIC);
+			out.writeInt(Level.COMPILED_LEVEL_VERSION);
+			out.writeInt(width);
+			out.writeInt(height);
+			out.writeInt(numRocks);
+			rockBytes.writeTo(out);
+			out.writeInt(numObjects);
+			objectBytes.writeTo(out);
+		}
+		finally
+		{
+			out.close();
+		}
+		System.out.println("Compiled '"+input+"' to '"+output+"': "+numRocks+" rocks, "+numObjects+" objects");
+	}
+
+	private static void writeRockSpan(DataOutputStream out, int x, int y, int length) throws IOException
+	{
+		out.writeInt(x);
+		out.writeShort(y);
+		out.writeInt(length);
+	}
+}
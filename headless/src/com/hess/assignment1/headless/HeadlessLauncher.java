@@ -0,0 +1,24 @@
+package com.hess.assignment1.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+/**
+ * Starts the simulation benchmark on the headless backend. Arguments, all optional:
+ * ticks, warmup ticks, random seed
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class HeadlessLauncher
+{
+	public static void main(String[] args)
+	{
+		int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 36000;
+		int warmupTicks = args.length > 1 ? Integer.parseInt(args[1]) : 12000;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		new HeadlessApplication(new SimulationBenchmark(ticks, warmupTicks, seed), config);
+	}
+}
@@ -0,0 +1,88 @@
+package com.hess.assignment1.headless;
+
+import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.backends.headless.mock.input.MockInput;
+import com.badlogic.gdx.utils.Array;
+import game.Level;
+import game.WorldController;
+import objects.BunnyHead;
+import objects.Rock;
+
+/**
+ * Input that plays through the level the same way on every run. The headless
+ * backend counts as a non-desktop platform, so the bunny already runs right on its
+ * own; this only decides when to jump. It only looks at the level, never at the
+ * clock, so the same level always gets the same key presses. The bunny jumps when
+ * the rock under it ends or a taller rock is in the way, holds jump for the full
+ * height, and flaps with a feather while there is nothing to land on
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class ScriptedInput extends MockInput
+{
+	//How far ahead of the bunny the ground is checked
+	private static final float LOOKAHEAD = 0.1f;
+	
+	//How far ahead of the bunny a taller rock makes it jump
+	private static final float WALL_LOOKAHEAD = 0.5f;
+	private WorldController worldController;
+
+	/**
+	 * Plays through the level worldController is running
+	 *
+	 * @param worldController
+	 */
+	public void setWorldController(WorldController worldController)
+	{
+		this.worldController = worldController;
+	}
+
+	@Override
+	public boolean isKeyPressed(int key)
+	{
+		if(key != Keys.SPACE || worldController == null) return false;
+		Level level = worldController.level;
+		BunnyHead bunny = level.bunnyHead;
+		float front = bunny.position.x+bunny.bounds.width;
+
+		switch(bunny.jumpState)
+		{
+			case GROUNDED:
+				return !hasGround(level.rocks, bunny.position.x+LOOKAHEAD, bunny.position.y) || hasWall(level.rocks, front, bunny.position.y);
+			case JUMP_RISING:
+				//Let go at the top so the bunny can land
+				return bunny.velocity.y > 0;
+			default:
+				return bunny.hasFeatherPowerup() && !hasGround(level.rocks, bunny.position.x, bunny.position.y) && !hasGround(level.rocks, front, bunny.position.y);
+		}
+	}
+
+	/**
+	 * Returns true if a rock whose top is at or below feetY spans x
+	 */
+	private boolean hasGround(Array<Rock> rocks, float x, float feetY)
+	{
+		for(int i = 0; i < rocks.size; i++)
+		{
+			Rock rock = rocks.get(i);
+			if(x < rock.position.x || x > rock.position.x+rock.bounds.width) continue;
+			if(rock.position.y+rock.bounds.height <= feetY+0.1f) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if a rock that starts just past front reaches above feetY
+	 */
+	private boolean hasWall(Array<Rock> rocks, float front, float feetY)
+	{
+		for(int i = 0; i < rocks.size; i++)
+		{
+			Rock rock = rocks.get(i);
+			if(rock.position.x < front || rock.position.x > front+WALL_LOOKAHEAD) continue;
+			if(rock.position.y+rock.bounds.height > feetY+0.1f) return true;
+		}
+		return false;
+	}
+}
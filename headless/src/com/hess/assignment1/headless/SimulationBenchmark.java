@@ -0,0 +1,182 @@
+package com.hess.assignment1.headless;
+
+import java.lang.management.ManagementFactory;
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
+import game.Assets;
+import game.WorldController;
+import utilities.Constants;
+import utilities.FrameProfiler;
+import utilities.FrameProfiler.Phase;
+import utilities.GamePreferences;
+import utilities.GameRandom;
+
+/**
+ * Runs WorldController and Level as fast as possible for a fixed number of ticks with
+ * scripted input and a fixed random seed, then reports ticks per second, how much was
+ * allocated and the average time of every simulation phase. The same arguments always
+ * give the same final state, printed as a checksum so regressions in behaviour show
+ * up next to regressions in speed
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class SimulationBenchmark extends ApplicationAdapter
+{
+	private final int ticks;
+	private final int warmupTicks;
+	private final long seed;
+	private WorldController worldController;
+	private ScriptedInput input;
+	private int levelsFinished;
+	private int gameOvers;
+	private boolean restartRequested;
+
+	/**
+	 * The menu is never shown. Leaving the level just restarts it
+	 */
+	private class BenchmarkGame extends Game
+	{
+		@Override
+		public void create(){}
+
+		@Override
+		public void setScreen(Screen screen)
+		{
+			restartRequested = true;
+		}
+	}
+
+	/**
+	 * @param ticks simulation steps that are measured
+	 * @param warmupTicks simulation steps run first so the JIT can compile the hot path
+	 * @param seed for GameRandom
+	 */
+	public SimulationBenchmark(int ticks, int warmupTicks, long seed)
+	{
+		this.ticks = ticks;
+		this.warmupTicks = warmupTicks;
+		this.seed = seed;
+	}
+
+	@Override
+	public void create()
+	{
+		//Keep the game's own logging out of the results
+		Gdx.app.setLogLevel(Application.LOG_ERROR);
+		
+		//Textures and fonts are decoded but never uploaded
+		Gdx.gl = StubGL20.create();
+		Gdx.gl20 = Gdx.gl;
+		input = new ScriptedInput();
+		Gdx.input = input;
+
+		Assets.instance.init(new AssetManager());
+		GamePreferences.instance.load();
+		GameRandom.instance.setSeed(seed);
+		worldController = new WorldController(new BenchmarkGame());
+		input.setWorldController(worldController);
+		float tickDuration = 1.0f/Constants.SIMULATION_TICK_RATE;
+
+		//Warm up
+		FrameProfiler.instance.setEnabled(false);
+		for(int i = 0; i < warmupTicks; i++)
+		{
+			tick(tickDuration);
+		}
+
+		//Measure
+		FrameProfiler.instance.setEnabled(true);
+		levelsFinished = 0;
+		gameOvers = 0;
+		long allocatedStart = getAllocatedBytes();
+		long start = System.nanoTime();
+		for(int i = 0; i < ticks; i++)
+		{
+			tick(tickDuration);
+			FrameProfiler.instance.endFrame();
+		}
+		long elapsed = System.nanoTime()-start;
+		long allocated = getAllocatedBytes()-allocatedStart;
+
+		report(elapsed, allocated);
+		FrameProfiler.instance.setEnabled(false);
+		Gdx.app.exit();
+	}
+
+	/**
+	 * Advances the game by one simulation step
+	 *
+	 * @param tickDuration
+	 */
+	private void tick(float tickDuration)
+	{
+		worldController.update(tickDuration);
+		if(restartRequested)
+		{
+			restartRequested = false;
+			if(worldController.isGameOver()) gameOvers++;
+			else levelsFinished++;
+			worldController.init();
+		}
+	}
+
+	/**
+	 * Returns how many bytes this thread has allocated so far, or -1 if the JVM can't tell
+	 */
+	private long getAllocatedBytes()
+	{
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if(threads instanceof com.sun.management.ThreadMXBean)
+		{
+			return ((com.sun.management.ThreadMXBean)threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	/**
+	 * Prints the results
+	 *
+	 * @param elapsed
+	 * @param allocated
+	 */
+	private void report(long elapsed, long allocated)
+	{
+		double seconds = elapsed/1e9;
+		System.out.println("Ticks:            "+ticks+" (after "+warmupTicks+" warmup, seed "+seed+")");
+		System.out.println("Ticks per second: "+String.format("%.1f", ticks/seconds));
+		System.out.println("Time per tick:    "+String.format("%.2f us", elapsed/1e3/ticks));
+		if(allocated >= 0)
+		{
+			System.out.println("Allocated:        "+String.format("%.1f bytes/tick, %.2f MB/s", (double)allocated/ticks, allocated/seconds/(1024*1024)));
+		}
+		System.out.println("Levels finished:  "+levelsFinished);
+		System.out.println("Game overs:       "+gameOvers);
+		for(Phase phase: Phase.values())
+		{
+			if(phase == Phase.RENDER_WORLD || phase == Phase.RENDER_GUI) continue;
+			System.out.println(String.format("  %-12s %8.2f us/tick", phase.getLabel(), FrameProfiler.instance.getMeanNanos(phase)/1e3));
+		}
+		System.out.println("Final state:      "+getChecksum());
+	}
+
+	/**
+	 * Describes where the run ended up. Two runs with the same arguments have to print
+	 * the same thing
+	 */
+	private String getChecksum()
+	{
+		return String.format("bunny=(%.4f, %.4f) score=%d lives=%d", worldController.level.bunnyHead.position.x,
+			worldController.level.bunnyHead.position.y, worldController.score, worldController.lives);
+	}
+
+	@Override
+	public void dispose()
+	{
+		Assets.instance.dispose();
+	}
+}
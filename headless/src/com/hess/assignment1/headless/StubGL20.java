@@ -0,0 +1,205 @@
+package com.hess.assignment1.headless;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import com.badlogic.gdx.graphics.GL20;
+
+/**
+ * The headless backend doesn't create an OpenGL context, but Assets still builds
+ * textures and fonts. This GL20 does nothing and returns zero, false or null, so
+ * textures are decoded but never uploaded anywhere. Shaders report that they
+ * compiled and linked and frame buffers report that they are complete, so
+ * SpriteBatch and FrameBuffer can be created. None of the calls allocate,
+ * so allocation benchmarks only see what the game itself allocates
+ *
+ * @author Raistlin Hess
+ *
+ */
+public class StubGL20 implements GL20
+{
+	private StubGL20(){}
+
+	/**
+	 * Returns a GL20 that ignores every call
+	 */
+	public static GL20 create()
+	{
+		return new StubGL20();
+	}
+
+	public void glActiveTexture(int arg0){}
+	public void glBindTexture(int arg0, int arg1){}
+	public void glBlendFunc(int arg0, int arg1){}
+	public void glClear(int arg0){}
+	public void glClearColor(float arg0, float arg1, float arg2, float arg3){}
+	public void glClearDepthf(float arg0){}
+	public void glClearStencil(int arg0){}
+	public void glColorMask(boolean arg0, boolean arg1, boolean arg2, boolean arg3){}
+	public void glCompressedTexImage2D(int arg0, int arg1, int arg2, int arg3, int arg4, int arg5, int arg6, Buffer arg7){}
+	public void glCompressedTexSubImage2D(int arg0, int arg1, int arg2, int arg3, int arg4, int arg5, int arg6, int arg7, Buffer arg8){}
+	public void glCopyTexImage2D(int arg0, int arg1, int arg2, int arg3, int arg4, int arg5, int arg6, int arg7){}
+	public void glCopyTexSubImage2D(int arg0, int arg1, int arg2, int arg3, int arg4, int arg5, int arg6, int arg7){}
+	public void glCullFace(int arg0){}
+	public void glDeleteTextures(int arg0, IntBuffer arg1){}
+	public void glDeleteTexture(int arg0){}
+	public void glDepthFunc(int arg0){}
+	public void glDepthMask(boolean arg0){}
+	public void glDepthRangef(float arg0, float arg1){}
+	public void glDisable(int arg0){}
+	public void glDrawArrays(int arg0, int arg1, int arg2){}
+	public void glDrawElements(int arg0, int arg1, int arg2, Buffer arg3){}
+	public void glEnable(int arg0){}
+	public void glFinish(){}
+	public void glFlush(){}
+	public void glFrontFace(int arg0){}
+	public void glGenTextures(int arg0, IntBuffer arg1){}
+	public int glGenTexture(){return 0;}
+	public int glGetError(){return 0;}
+	public void glGetIntegerv(int arg0, IntBuffer arg1){}
+	public String glGetString(int arg0){return "";}
+	public void glHint(int arg0, int arg1){}
+	public void glLineWidth(float arg0){}
+	public void glPixelStorei(int arg0, int arg1){}
+	public void glPolygonOffset(float arg0, float arg1){}
+	public void glReadPixels(int arg0, int arg1, int arg2, int arg3, int arg4, int arg5, Buffer arg6){}
+	public void glScissor(int arg0, int arg1, int arg2, int arg3){}
+	public void glStencilFunc(int arg0, int arg1, int arg2){}
+	public void glStencilMask(int arg0){}
+	public void glStencilOp(int arg0, int arg1, int arg2){}
+	public void glTexImage2D(int arg0, int arg1, int arg2, int arg3, int arg4, int arg5, int arg6, int arg7, Buffer arg8){}
+	public void glTexParameterf(int arg0, int arg1, float arg2){}
+	public void glTexSubImage2D(int arg0, int arg1, int arg2, int arg3, int arg4, int arg5, int arg6, int arg7, Buffer arg8){}
+	public void glViewport(int arg0, int arg1, int arg2, int arg3){}
+	public void glAttachShader(int arg0, int arg1){}
+	public void glBindAttribLocation(int arg0, int arg1, String arg2){}
+	public void glBindBuffer(int arg0, int arg1){}
+	public void glBindFramebuffer(int arg0, int arg1){}
+	public void glBindRenderbuffer(int arg0, int arg1){}
+	public void glBlendColor(float arg0, float arg1, float arg2, float arg3){}
+	public void glBlendEquation(int arg0){}
+	public void glBlendEquationSeparate(int arg0, int arg1){}
+	public void glBlendFuncSeparate(int arg0, int arg1, int arg2, int arg3){}
+	public void glBufferData(int arg0, int arg1, Buffer arg2, int arg3){}
+	public void glBufferSubData(int arg0, int arg1, int arg2, Buffer arg3){}
+	//FrameBuffer throws unless it is told the buffer is complete
+	public int glCheckFramebufferStatus(int arg0){return GL_FRAMEBUFFER_COMPLETE;}
+	public void glCompileShader(int arg0){}
+	//ShaderProgram treats 0 as a failed create
+	public int glCreateProgram(){return 1;}
+	public int glCreateShader(int arg0){return 1;}
+	public void glDeleteBuffer(int arg0){}
+	public void glDeleteBuffers(int arg0, IntBuffer arg1){}
+	public void glDeleteFramebuffer(int arg0){}
+	public void glDeleteFramebuffers(int arg0, IntBuffer arg1){}
+	public void glDeleteProgram(int arg0){}
+	public void glDeleteRenderbuffer(int arg0){}
+	public void glDeleteRenderbuffers(int arg0, IntBuffer arg1){}
+	public void glDeleteShader(int arg0){}
+	public void glDetachShader(int arg0, int arg1){}
+	public void glDisableVertexAttribArray(int arg0){}
+	public void glDrawElements(int arg0, int arg1, int arg2, int arg3){}
+	public void glEnableVertexAttribArray(int arg0){}
+	public void glFramebufferRenderbuffer(int arg0, int arg1, int arg2, int arg3){}
+	public void glFramebufferTexture2D(int arg0, int arg1, int arg2, int arg3, int arg4){}
+	public int glGenBuffer(){return 0;}
+	public void glGenBuffers(int arg0, IntBuffer arg1){}
+	public void glGenerateMipmap(int arg0){}
+	public int glGenFramebuffer(){return 0;}
+	public void glGenFramebuffers(int arg0, IntBuffer arg1){}
+	public int glGenRenderbuffer(){return 0;}
+	public void glGenRenderbuffers(int arg0, IntBuffer arg1){}
+	public String glGetActiveAttrib(int arg0, int arg1, IntBuffer arg2, Buffer arg3){return "";}
+	public String glGetActiveUniform(int arg0, int arg1, IntBuffer arg2, Buffer arg3){return "";}
+	public void glGetAttachedShaders(int arg0, int arg1, Buffer arg2, IntBuffer arg3){}
+	public int glGetAttribLocation(int arg0, String arg1){return 0;}
+	public void glGetBooleanv(int arg0, Buffer arg1){}
+	public void glGetBufferParameteriv(int arg0, int arg1, IntBuffer arg2){}
+	public void glGetFloatv(int arg0, FloatBuffer arg1){}
+	public void glGetFramebufferAttachmentParameteriv(int arg0, int arg1, int arg2, IntBuffer arg3){}
+	public void glGetProgramiv(int arg0, int arg1, IntBuffer arg2)
+	{
+		//Every shader compiles and links
+		boolean status = arg1 == GL_COMPILE_STATUS || arg1 == GL_LINK_STATUS;
+		arg2.put(0, status ? GL_TRUE : 0);
+	}
+	public String glGetProgramInfoLog(int arg0){return "";}
+	public void glGetRenderbufferParameteriv(int arg0, int arg1, IntBuffer arg2){}
+	public void glGetShaderiv(int arg0, int arg1, IntBuffer arg2)
+	{
+		//Every shader compiles and links
+		boolean status = arg1 == GL_COMPILE_STATUS || arg1 == GL_LINK_STATUS;
+		arg2.put(0, status ? GL_TRUE : 0);
+	}
+	public String glGetShaderInfoLog(int arg0){return "";}
+	public void glGetShaderPrecisionFormat(int arg0, int arg1, IntBuffer arg2, IntBuffer arg3){}
+	public void glGetTexParameterfv(int arg0, int arg1, FloatBuffer arg2){}
+	public void glGetTexParameteriv(int arg0, int arg1, IntBuffer arg2){}
+	public void glGetUniformfv(int arg0, int arg1, FloatBuffer arg2){}
+	public void glGetUniformiv(int arg0, int arg1, IntBuffer arg2){}
+	public int glGetUniformLocation(int arg0, String arg1){return 0;}
+	public void glGetVertexAttribfv(int arg0, int arg1, FloatBuffer arg2){}
+	public void glGetVertexAttribiv(int arg0, int arg1, IntBuffer arg2){}
+	public void glGetVertexAttribPointerv(int arg0, int arg1, Buffer arg2){}
+	public boolean glIsBuffer(int arg0){return false;}
+	public boolean glIsEnabled(int arg0){return false;}
+	public boolean glIsFramebuffer(int arg0){return false;}
+	public boolean glIsProgram(int arg0){return false;}
+	public boolean glIsRenderbuffer(int arg0){return false;}
+	public boolean glIsShader(int arg0){return false;}
+	public boolean glIsTexture(int arg0){return false;}
+	public void glLinkProgram(int arg0){}
+	public void glReleaseShaderCompiler(){}
+	public void glRenderbufferStorage(int arg0, int arg1, int arg2, int arg3){}
+	public void glSampleCoverage(float arg0, boolean arg1){}
+	public void glShaderBinary(int arg0, IntBuffer arg1, int arg2, Buffer arg3, int arg4){}
+	public void glShaderSource(int arg0, String arg1){}
+	public void glStencilFuncSeparate(int arg0, int arg1, int arg2, int arg3){}
+	public void glStencilMaskSeparate(int arg0, int arg1){}
+	public void glStencilOpSeparate(int arg0, int arg1, int arg2, int arg3){}
+	public void glTexParameterfv(int arg0, int arg1, FloatBuffer arg2){}
+	public void glTexParameteri(int arg0, int arg1, int arg2){}
+	public void glTexParameteriv(int arg0, int arg1, IntBuffer arg2){}
+	public void glUniform1f(int arg0, float arg1){}
+	public void glUniform1fv(int arg0, int arg1, FloatBuffer arg2){}
+	public void glUniform1fv(int arg0, int arg1, float[] arg2, int arg3){}
+	public void glUniform1i(int arg0, int arg1){}
+	public void glUniform1iv(int arg0, int arg1, IntBuffer arg2){}
+	public void glUniform1iv(int arg0, int arg1, int[] arg2, int arg3){}
+	public void glUniform2f(int arg0, float arg1, float arg2){}
+	public void glUniform2fv(int arg0, int arg1, FloatBuffer arg2){}
+	public void glUniform2fv(int arg0, int arg1, float[] arg2, int arg3){}
+	public void glUniform2i(int arg0, int arg1, int arg2){}
+	public void glUniform2iv(int arg0, int arg1, IntBuffer arg2){}
+	public void glUniform2iv(int arg0, int arg1, int[] arg2, int arg3){}
+	public void glUniform3f(int arg0, float arg1, float arg2, float arg3){}
+	public void glUniform3fv(int arg0, int arg1, FloatBuffer arg2){}
+	public void glUniform3fv(int arg0, int arg1, float[] arg2, int arg3){}
+	public void glUniform3i(int arg0, int arg1, int arg2, int arg3){}
+	public void glUniform3iv(int arg0, int arg1, IntBuffer arg2){}
+	public void glUniform3iv(int arg0, int arg1, int[] arg2, int arg3){}
+	public void glUniform4f(int arg0, float arg1, float arg2, float arg3, float arg4){}
+	public void glUniform4fv(int arg0, int arg1, FloatBuffer arg2){}
+	public void glUniform4fv(int arg0, int arg1, float[] arg2, int arg3){}
+	public void glUniform4i(int arg0, int arg1, int arg2, int arg3, int arg4){}
+	public void glUniform4iv(int arg0, int arg1, IntBuffer arg2){}
+	public void glUniform4iv(int arg0, int arg1, int[] arg2, int arg3){}
+	public void glUniformMatrix2fv(int arg0, int arg1, boolean arg2, FloatBuffer arg3){}
+	public void glUniformMatrix2fv(int arg0, int arg1, boolean arg2, float[] arg3, int arg4){}
+	public void glUniformMatrix3fv(int arg0, int arg1, boolean arg2, FloatBuffer arg3){}
+	public void glUniformMatrix3fv(int arg0, int arg1, boolean arg2, float[] arg3, int arg4){}
+	public void glUniformMatrix4fv(int arg0, int arg1, boolean arg2, FloatBuffer arg3){}
+	public void glUniformMatrix4fv(int arg0, int arg1, boolean arg2, float[] arg3, int arg4){}
+	public void glUseProgram(int arg0){}
+	public void glValidateProgram(int arg0){}
+	public void glVertexAttrib1f(int arg0, float arg1){}
+	public void glVertexAttrib1fv(int arg0, FloatBuffer arg1){}
+	public void glVertexAttrib2f(int arg0, float arg1, float arg2){}
+	public void glVertexAttrib2fv(int arg0, FloatBuffer arg1){}
+	public void glVertexAttrib3f(int arg0, float arg1, float arg2, float arg3){}
+	public void glVertexAttrib3fv(int arg0, FloatBuffer arg1){}
+	public void glVertexAttrib4f(int arg0, float arg1, float arg2, float arg3, float arg4){}
+	public void glVertexAttrib4fv(int arg0, FloatBuffer arg1){}
+	public void glVertexAttribPointer(int arg0, int arg1, int arg2, boolean arg3, int arg4, Buffer arg5){}
+	public void glVertexAttribPointer(int arg0, int arg1, int arg2, boolean arg3, int arg4, int arg5){}
+}